@@ -0,0 +1,166 @@
+package com.example.todolist.apidocs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.util.StreamUtils;
+
+import com.example.todolist.ToDoListApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates the Swagger spec served in api-docs mode static, see {@code ./gradlew generateApiDocs}.
+ * <p>
+ * Starts the application once with Springfox to fetch {@code /v2/api-docs} into the output file, then
+ * once more serving that file, each in a fresh JVM so neither start benefits from classes the other
+ * loaded. Prints the startup time, heap used after a full GC and loaded classes of both starts and
+ * writes them to the report file.
+ * <p>
+ * Arguments: output file, report file (optional).
+ */
+public class ApiDocsGenerator {
+
+	private static final String MEASURE = "--measure";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final String[] MODES = { "springfox", "static" };
+
+	private static final String[] METRICS = { "startup-ms", "heap-used-bytes", "loaded-classes" };
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && MEASURE.equals(args[0])) {
+			measure(args[1], new File(args[2]), args.length > 3 ? new File(args[3]) : null);
+			return;
+		}
+		File output = new File(args[0]).getAbsoluteFile();
+		File report = args.length > 1 ? new File(args[1]).getAbsoluteFile() : null;
+		output.getParentFile().mkdirs();
+		File generated = new File(output.getPath() + ".tmp");
+
+		Properties springfox = fork("springfox", output, generated);
+		Properties fromFile = fork("static", generated, null);
+		Files.move(generated.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		Properties results = new Properties();
+		for (String metric : METRICS) {
+			results.setProperty("springfox." + metric, springfox.getProperty(metric));
+			results.setProperty("static." + metric, fromFile.getProperty(metric));
+		}
+		print(results, output);
+		if (report != null) {
+			report.getParentFile().mkdirs();
+			try (OutputStream out = new FileOutputStream(report)) {
+				results.store(out, "Startup with Springfox and with the generated spec");
+			}
+		}
+	}
+
+	/**
+	 * Runs {@link #measure} in a new JVM with the classpath of this one and returns its results
+	 */
+	private static Properties fork(String mode, File location, File output) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>(Arrays.asList(
+				new File(System.getProperty("java.home"), "bin/java").getPath(),
+				"-cp", System.getProperty("java.class.path"),
+				ApiDocsGenerator.class.getName(), MEASURE, mode, location.getPath()));
+		if (output != null) {
+			command.add(output.getPath());
+		}
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		Properties results = new Properties();
+		StringBuilder log = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				log.append(line).append('\n');
+				int separator = line.indexOf('=');
+				if (line.startsWith(MEASURE) && separator > 0) {
+					results.setProperty(line.substring(MEASURE.length() + 1, separator), line.substring(separator + 1));
+				}
+			}
+		}
+		if (process.waitFor() != 0 || results.size() != METRICS.length) {
+			throw new IllegalStateException("Start in api-docs mode " + mode + " failed:\n" + log);
+		}
+		return results;
+	}
+
+	/**
+	 * Starts the application in the given api-docs mode, reports its startup cost on standard out and
+	 * writes the served spec to the output file if given
+	 */
+	private static void measure(String mode, File location, File output) throws IOException {
+		long start = System.nanoTime();
+		EmbeddedWebApplicationContext context = (EmbeddedWebApplicationContext) new SpringApplicationBuilder(
+				ToDoListApplication.class)
+						.properties("server.port=0", "logging.level.root=WARN")
+						// as arguments, so they take precedence over application.properties
+						.run("--todolist.api-docs.mode=" + mode, "--todolist.api-docs.location=file:" + location.getPath());
+		try {
+			long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			System.gc();
+			System.gc();
+			long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			int loadedClasses = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+
+			byte[] apiDocs = get("http://localhost:" + context.getEmbeddedServletContainer().getPort() + "/v2/api-docs");
+			if (output != null) {
+				// the host of this run, without it swagger-ui calls the host serving the spec
+				ObjectNode spec = (ObjectNode) OBJECT_MAPPER.readTree(apiDocs);
+				spec.remove("host");
+				OBJECT_MAPPER.writeValue(output, spec);
+			} else if (!Arrays.equals(apiDocs, Files.readAllBytes(location.toPath()))) {
+				throw new IllegalStateException("Served spec differs from " + location);
+			}
+			System.out.println(MEASURE + ".startup-ms=" + startupMillis);
+			System.out.println(MEASURE + ".heap-used-bytes=" + heapUsed);
+			System.out.println(MEASURE + ".loaded-classes=" + loadedClasses);
+		} finally {
+			context.close();
+		}
+	}
+
+	private static byte[] get(String url) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+			throw new IllegalStateException(url + " returned " + connection.getResponseCode());
+		}
+		try (InputStream in = connection.getInputStream()) {
+			return StreamUtils.copyToByteArray(in);
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private static void print(Properties results, File output) {
+		System.out.println("Generated " + output);
+		System.out.println(String.format("%-16s %12s %12s %8s", "", "springfox", "static", "change"));
+		for (String metric : METRICS) {
+			long before = Long.parseLong(results.getProperty("springfox." + metric));
+			long after = Long.parseLong(results.getProperty("static." + metric));
+			System.out.println(String.format("%-16s %12d %12d %7.1f%%", metric, before, after,
+					before == 0 ? 0.0 : 100.0 * (after - before) / before));
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.todolist.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.todolist.ToDoListApplication;
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * Starts the application on its embedded H2 and creates test data for benchmarks
+ */
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Starts the application with the read cache off, so benchmarks measure the persistence layer
+	 */
+	static ConfigurableApplicationContext start(boolean web, String... properties) {
+		return new SpringApplicationBuilder(ToDoListApplication.class)
+				.web(web)
+				.profiles("test")
+				.properties("todolist.cache.enabled=false", "server.port=0", "logging.level.root=WARN")
+				.properties(properties)
+				.run();
+	}
+
+	static List<ToDoEntry> entries(int count, int descriptionLength) {
+		List<ToDoEntry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription(RandomStringUtils.randomAlphanumeric(descriptionLength));
+			entries.add(entry);
+		}
+		return entries;
+	}
+
+	static Long createList(ConfigurableApplicationContext context, int entries, int descriptionLength) {
+		ToDoList list = new ToDoList();
+		list.setName("benchmark " + System.nanoTime());
+		Long listId = context.getBean(ListRepository.class).save(list).getId();
+		context.getBean(EntryRepository.class).insertAll(listId, entries(entries, descriptionLength));
+		return listId;
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.todolist.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.todolist.model.ToDoEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Full request path through the dispatcher servlet, interceptors, controller, repositories and
+ * Jackson, without the network
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerBenchmark {
+
+	private static final int CREATES_PER_INVOCATION = 100;
+
+	@Param({ "10", "1000" })
+	public int entries;
+
+	@Param({ "256" })
+	public int descriptionLength;
+
+	private ConfigurableApplicationContext context;
+
+	private MockMvc mvc;
+
+	private ObjectMapper objectMapper;
+
+	private Long listId;
+
+	private String listETag;
+
+	/**
+	 * JSON of the entries created per invocation, one document per entry
+	 */
+	private List<String> entryBodies;
+
+	/**
+	 * The same entries as a single JSON array
+	 */
+	private String entriesBody;
+
+	@Setup(Level.Trial)
+	public void startApplication() throws Exception {
+		context = BenchmarkApplication.start(true);
+		mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+		objectMapper = context.getBean(ObjectMapper.class);
+		listId = BenchmarkApplication.createList(context, entries, descriptionLength);
+		listETag = mvc.perform(get("/api/" + listId)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		List<ToDoEntry> creates = BenchmarkApplication.entries(CREATES_PER_INVOCATION, descriptionLength);
+		entryBodies = new ArrayList<>(creates.size());
+		for (ToDoEntry entry : creates) {
+			entryBodies.add(objectMapper.writeValueAsString(entry));
+		}
+		entriesBody = objectMapper.writeValueAsString(creates);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public MvcResult getListSummaries() throws Exception {
+		return mvc.perform(get("/api?limit=100")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getListEntries() throws Exception {
+		return mvc.perform(get("/api/" + listId)).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getListEntriesNotModified() throws Exception {
+		return mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, listETag)).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult createAndDeleteEntry() throws Exception {
+		MvcResult created = mvc.perform(post("/api/" + listId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"benchmark entry\"}"))
+				.andReturn();
+		JsonNode entry = objectMapper.readTree(created.getResponse().getContentAsByteArray());
+		return mvc.perform(delete("/api/" + entry.get("id").asLong() + "/" + listId)).andReturn();
+	}
+
+	/**
+	 * One request per entry, like an import calling POST /api/{listId} for every entry
+	 */
+	@Benchmark
+	@OperationsPerInvocation(CREATES_PER_INVOCATION)
+	public void createEntryOneByOne() throws Exception {
+		for (String body : entryBodies) {
+			mvc.perform(post("/api/" + listId)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(body));
+		}
+	}
+
+	/**
+	 * The same entries in a single POST /api/{listId}/entries
+	 */
+	@Benchmark
+	@OperationsPerInvocation(CREATES_PER_INVOCATION)
+	public MvcResult createEntries() throws Exception {
+		return mvc.perform(post("/api/" + listId + "/entries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(entriesBody))
+				.andReturn();
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.todolist.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * Repository calls against the embedded H2, with the read cache disabled
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+	private static final int INSERTS_PER_INVOCATION = 100;
+
+	@Param({ "100", "10000" })
+	public int entries;
+
+	@Param({ "256" })
+	public int descriptionLength;
+
+	private ConfigurableApplicationContext context;
+
+	private ListRepository listRepository;
+
+	private EntryRepository entryRepository;
+
+	private Long listId;
+
+	private Long insertListId;
+
+	private List<ToDoEntry> inserts;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkApplication.start(false);
+		listRepository = context.getBean(ListRepository.class);
+		entryRepository = context.getBean(EntryRepository.class);
+		listId = BenchmarkApplication.createList(context, entries, descriptionLength);
+		insertListId = BenchmarkApplication.createList(context, 0, descriptionLength);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareInserts() {
+		inserts = BenchmarkApplication.entries(INSERTS_PER_INVOCATION, descriptionLength);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public Collection<ToDoEntry> findAllByListId() {
+		return entryRepository.findAllByListId(listId);
+	}
+
+	@Benchmark
+	public ToDoList findOneWithEntries() {
+		return listRepository.findOneWithEntries(listId);
+	}
+
+	/**
+	 * One transaction and INSERT per entry, like repeated POST /api/{listId}
+	 */
+	@Benchmark
+	@OperationsPerInvocation(INSERTS_PER_INVOCATION)
+	public void insertOneByOne() {
+		ToDoList list = listRepository.getOne(insertListId);
+		for (ToDoEntry entry : inserts) {
+			entry.setList(list);
+			entryRepository.save(entry);
+		}
+	}
+
+	/**
+	 * JDBC batched inserts, like POST /api/{listId}/entries
+	 */
+	@Benchmark
+	@OperationsPerInvocation(INSERTS_PER_INVOCATION)
+	public void insertAll() {
+		entryRepository.insertAll(insertListId, inserts);
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.todolist.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of entry collections and lists, configured like the application's mapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	public int entries;
+
+	@Param({ "32", "1024", "16000" })
+	public int descriptionLength;
+
+	private ObjectMapper objectMapper;
+
+	private List<ToDoEntry> entryCollection;
+
+	private ToDoList list;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		entryCollection = BenchmarkApplication.entries(entries, descriptionLength);
+		list = new ToDoList();
+		list.setName("benchmark");
+		for (ToDoEntry entry : entryCollection) {
+			list.addEntry(entry);
+		}
+	}
+
+	@Benchmark
+	public byte[] serializeEntries() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(entryCollection);
+	}
+
+	@Benchmark
+	public byte[] serializeList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(list);
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.todolist.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.todolist.model.ToDoEntry;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encoding and decoding of list entries in the wire formats of the API, with mappers configured like
+ * the application's message converters. The payload size of every format is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	public int entries;
+
+	@Param({ "32", "1024", "16000" })
+	public int descriptionLength;
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	private ObjectMapper objectMapper;
+
+	private JavaType entryListType;
+
+	private List<ToDoEntry> entryCollection;
+
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = new ObjectMapper(factory(format));
+		Jackson2ObjectMapperBuilder.json().configure(objectMapper);
+		entryListType = objectMapper.getTypeFactory().constructCollectionType(List.class, ToDoEntry.class);
+		entryCollection = BenchmarkApplication.entries(entries, descriptionLength);
+		long id = 1_000_000;
+		for (ToDoEntry entry : entryCollection) {
+			entry.setId(id++);
+		}
+		encoded = objectMapper.writeValueAsBytes(entryCollection);
+		System.out.printf("%n%s payload for %d entries of %d chars: %d bytes%n", format, entries,
+				descriptionLength, encoded.length);
+	}
+
+	private static JsonFactory factory(String format) {
+		switch (format) {
+		case "cbor":
+			return new CBORFactory();
+		case "smile":
+			return new SmileFactory();
+		default:
+			return new JsonFactory();
+		}
+	}
+
+	@Benchmark
+	public byte[] encodeEntries() throws IOException {
+		return objectMapper.writeValueAsBytes(entryCollection);
+	}
+
+	@Benchmark
+	public List<ToDoEntry> decodeEntries() throws IOException {
+		return objectMapper.readValue(encoded, entryListType);
+	}
+}
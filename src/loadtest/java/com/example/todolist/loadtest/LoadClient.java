@@ -0,0 +1,158 @@
+package com.example.todolist.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * One simulated client issuing requests back to back until its deadline, recording latencies per
+ * operation once the warmup is over
+ */
+class LoadClient implements Runnable {
+
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+	private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final String baseUrl;
+
+	private final long[] listIds;
+
+	private final Operation[] mix;
+
+	private final long measureFrom;
+
+	private final long deadline;
+
+	private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+	private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+	/**
+	 * Entries this client created and has not deleted yet, as {listId, entryId}
+	 */
+	private final Deque<long[]> created = new ArrayDeque<>();
+
+	LoadClient(String baseUrl, long[] listIds, Operation[] mix, long measureFrom, long deadline) {
+		this.baseUrl = baseUrl;
+		this.listIds = listIds;
+		this.mix = mix;
+		this.measureFrom = measureFrom;
+		this.deadline = deadline;
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new Histogram(MAX_LATENCY_NANOS, 3));
+			errors.put(operation, 0L);
+		}
+	}
+
+	@Override
+	public void run() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long now;
+		while ((now = System.nanoTime()) < deadline) {
+			Operation operation = mix[random.nextInt(mix.length)];
+			if (operation == Operation.DELETE && created.isEmpty()) {
+				operation = Operation.CREATE;
+			}
+			boolean ok;
+			try {
+				ok = execute(operation, random);
+			} catch (IOException e) {
+				ok = false;
+			}
+			long end = System.nanoTime();
+			if (now >= measureFrom) {
+				latencies.get(operation).recordValue(Math.min(end - now, MAX_LATENCY_NANOS));
+				if (!ok) {
+					errors.put(operation, errors.get(operation) + 1);
+				}
+			}
+		}
+	}
+
+	Histogram getLatencies(Operation operation) {
+		return latencies.get(operation);
+	}
+
+	long getErrors(Operation operation) {
+		return errors.get(operation);
+	}
+
+	private boolean execute(Operation operation, ThreadLocalRandom random) throws IOException {
+		switch (operation) {
+		case CREATE:
+			long listId = listIds[random.nextInt(listIds.length)];
+			Response response = request("POST", "/api/" + listId,
+					"{\"description\": \"load test entry " + random.nextInt() + "\"}");
+			if (response.status == HttpURLConnection.HTTP_CREATED) {
+				Matcher matcher = ID.matcher(response.body);
+				if (matcher.find()) {
+					created.add(new long[] { listId, Long.parseLong(matcher.group(1)) });
+				}
+				return true;
+			}
+			return false;
+		case READ:
+			return request("GET", "/api/" + listIds[random.nextInt(listIds.length)], null).status
+					== HttpURLConnection.HTTP_OK;
+		case DELETE:
+			long[] entry = created.poll();
+			return request("DELETE", "/api/" + entry[1] + "/" + entry[0], null).status == HttpURLConnection.HTTP_OK;
+		default:
+			throw new IllegalArgumentException(operation.name());
+		}
+	}
+
+	Response request(String method, String path, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setRequestProperty("Accept", "application/json");
+		if (body != null) {
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		int status = connection.getResponseCode();
+		// the body is read to the end, so the connection goes back to the keep-alive pool
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		if (in != null) {
+			try (InputStream stream = in) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = stream.read(buffer)) != -1) {
+					content.write(buffer, 0, read);
+				}
+			}
+		}
+		return new Response(status, new String(content.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	static class Response {
+
+		final int status;
+
+		final String body;
+
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.example.todolist.loadtest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+
+import com.example.todolist.ToDoListApplication;
+
+/**
+ * Starts the application on its in-memory H2, drives a mix of create, read and delete calls from
+ * concurrent clients and reports throughput and latency percentiles per operation. Exits with 1 when
+ * a result is worse than the baseline by more than the tolerance, or when too many calls fail.
+ * <p>
+ * Configured with system properties, see {@code ./gradlew loadTest}:
+ * <ul>
+ * <li>loadtest.clients - concurrent clients, default 16</li>
+ * <li>loadtest.lists - lists the clients write to and read from, default 20</li>
+ * <li>loadtest.mix - relative weights, default create=20,read=70,delete=10</li>
+ * <li>loadtest.warmup-seconds, loadtest.duration-seconds - default 10 and 30</li>
+ * <li>loadtest.baseline - properties file with the expected results, not compared when missing</li>
+ * <li>loadtest.tolerance - accepted regression as a fraction of the baseline, default 0.25</li>
+ * <li>loadtest.max-error-rate - accepted fraction of failed calls, default 0.001</li>
+ * <li>loadtest.update-baseline - write the results as the new baseline instead of comparing</li>
+ * <li>loadtest.report - where to write the results</li>
+ * </ul>
+ */
+public class LoadTest {
+
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+	private static final String TOTAL = "total";
+
+	public static void main(String[] args) throws Exception {
+		int clients = Integer.getInteger("loadtest.clients", 16);
+		int lists = Integer.getInteger("loadtest.lists", 20);
+		Operation[] mix = parseMix(System.getProperty("loadtest.mix", "create=20,read=70,delete=10"));
+		long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+		long durationSeconds = Long.getLong("loadtest.duration-seconds", 30);
+		double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+		double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+		String baselinePath = System.getProperty("loadtest.baseline");
+		String reportPath = System.getProperty("loadtest.report");
+
+		EmbeddedWebApplicationContext context = (EmbeddedWebApplicationContext) new SpringApplicationBuilder(
+				ToDoListApplication.class)
+						.profiles("test")
+						.properties("server.port=0", "logging.level.root=WARN")
+						.run(args);
+		Properties results;
+		try {
+			String baseUrl = "http://localhost:" + context.getEmbeddedServletContainer().getPort();
+			long[] listIds = createLists(baseUrl, lists);
+
+			long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+			long deadline = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+			List<LoadClient> loadClients = new ArrayList<>();
+			List<Thread> threads = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				LoadClient client = new LoadClient(baseUrl, listIds, mix, measureFrom, deadline);
+				Thread thread = new Thread(client, "load-client-" + i);
+				loadClients.add(client);
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			results = summarize(loadClients, durationSeconds);
+		} finally {
+			context.close();
+		}
+
+		print(results);
+		if (reportPath != null) {
+			store(results, new File(reportPath), "Load test results");
+		}
+		if (baselinePath != null && Boolean.getBoolean("loadtest.update-baseline")) {
+			store(results, new File(baselinePath), "Load test baseline, refresh with -Ploadtest.update-baseline=true");
+			System.out.println("Baseline updated: " + baselinePath);
+			return;
+		}
+
+		List<String> failures = new ArrayList<>();
+		for (String operation : operationNames(results)) {
+			long calls = Long.parseLong(results.getProperty(operation + ".calls"));
+			long errors = Long.parseLong(results.getProperty(operation + ".errors"));
+			if (calls > 0 && (double) errors / calls > maxErrorRate) {
+				failures.add(operation + ": " + errors + " of " + calls + " calls failed");
+			}
+		}
+		if (baselinePath != null && new File(baselinePath).isFile()) {
+			failures.addAll(compare(results, load(new File(baselinePath)), tolerance));
+		}
+		if (!failures.isEmpty()) {
+			System.out.println("Load test failed:");
+			failures.forEach(failure -> System.out.println("  " + failure));
+			System.exit(1);
+		}
+	}
+
+	static Operation[] parseMix(String mix) {
+		List<Operation> weighted = new ArrayList<>();
+		for (String part : mix.split(",")) {
+			String[] weight = part.trim().split("=");
+			Operation operation = Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT));
+			for (int i = Integer.parseInt(weight[1].trim()); i > 0; i--) {
+				weighted.add(operation);
+			}
+		}
+		if (weighted.isEmpty()) {
+			throw new IllegalArgumentException("Empty operation mix: " + mix);
+		}
+		return weighted.toArray(new Operation[0]);
+	}
+
+	private static long[] createLists(String baseUrl, int count) throws IOException {
+		LoadClient client = new LoadClient(baseUrl, new long[0], new Operation[0], 0, 0);
+		long[] listIds = new long[count];
+		for (int i = 0; i < count; i++) {
+			LoadClient.Response response = client.request("POST", "/api", "{\"name\": \"load test list " + i + "\"}");
+			Matcher matcher = ID.matcher(response.body);
+			if (!matcher.find()) {
+				throw new IllegalStateException("Could not create list: " + response.status + " " + response.body);
+			}
+			listIds[i] = Long.parseLong(matcher.group(1));
+		}
+		return listIds;
+	}
+
+	private static Properties summarize(List<LoadClient> clients, long durationSeconds) {
+		Properties results = new Properties();
+		Histogram total = new Histogram(3);
+		long totalErrors = 0;
+		for (Operation operation : Operation.values()) {
+			Histogram histogram = new Histogram(3);
+			long errors = 0;
+			for (LoadClient client : clients) {
+				histogram.add(client.getLatencies(operation));
+				errors += client.getErrors(operation);
+			}
+			total.add(histogram);
+			totalErrors += errors;
+			if (histogram.getTotalCount() > 0) {
+				put(results, operation.name().toLowerCase(Locale.ROOT), histogram, errors, durationSeconds);
+			}
+		}
+		put(results, TOTAL, total, totalErrors, durationSeconds);
+		return results;
+	}
+
+	private static void put(Properties results, String name, Histogram histogram, long errors, long durationSeconds) {
+		results.setProperty(name + ".calls", Long.toString(histogram.getTotalCount()));
+		results.setProperty(name + ".errors", Long.toString(errors));
+		results.setProperty(name + ".throughput", format((double) histogram.getTotalCount() / durationSeconds));
+		results.setProperty(name + ".p50", millis(histogram.getValueAtPercentile(50)));
+		results.setProperty(name + ".p99", millis(histogram.getValueAtPercentile(99)));
+		results.setProperty(name + ".p999", millis(histogram.getValueAtPercentile(99.9)));
+	}
+
+	/**
+	 * Throughput may not drop and latencies may not grow by more than the tolerance. Keys missing from
+	 * the baseline are not compared.
+	 */
+	static List<String> compare(Properties results, Properties baseline, double tolerance) {
+		List<String> failures = new ArrayList<>();
+		for (String key : new TreeSet<>(baseline.stringPropertyNames())) {
+			String value = results.getProperty(key);
+			if (value == null) {
+				continue;
+			}
+			double expected = Double.parseDouble(baseline.getProperty(key));
+			double actual = Double.parseDouble(value);
+			if (key.endsWith(".throughput") && actual < expected * (1 - tolerance)) {
+				failures.add(key + " " + value + " ops/s, baseline " + baseline.getProperty(key));
+			} else if (key.matches(".*\\.p\\d+") && actual > expected * (1 + tolerance)) {
+				failures.add(key + " " + value + " ms, baseline " + baseline.getProperty(key));
+			}
+		}
+		return failures;
+	}
+
+	private static TreeSet<String> operationNames(Properties results) {
+		TreeSet<String> names = new TreeSet<>();
+		for (String key : results.stringPropertyNames()) {
+			names.add(key.substring(0, key.indexOf('.')));
+		}
+		return names;
+	}
+
+	private static void print(Properties results) {
+		System.out.printf("%-8s %10s %8s %12s %10s %10s %10s%n", "", "calls", "errors", "ops/s", "p50 ms", "p99 ms",
+				"p999 ms");
+		for (String name : operationNames(results)) {
+			System.out.printf("%-8s %10s %8s %12s %10s %10s %10s%n", name, results.getProperty(name + ".calls"),
+					results.getProperty(name + ".errors"), results.getProperty(name + ".throughput"),
+					results.getProperty(name + ".p50"), results.getProperty(name + ".p99"),
+					results.getProperty(name + ".p999"));
+		}
+	}
+
+	private static String millis(long nanos) {
+		return format(nanos / 1_000_000.0);
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	private static Properties load(File file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private static void store(Properties properties, File file, String comment) throws IOException {
+		file.getAbsoluteFile().getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(file)) {
+			properties.store(out, comment);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.example.todolist.loadtest;
+
+/**
+ * Calls the load generator issues against /api
+ */
+enum Operation {
+	/**
+	 * POST /api/{listId}
+	 */
+	CREATE,
+	/**
+	 * GET /api/{listId}
+	 */
+	READ,
+	/**
+	 * DELETE /api/{entryId}/{listId} of an entry the same client created
+	 */
+	DELETE
+}
@@ -4,6 +4,7 @@ import static com.google.common.collect.Lists.newArrayList;
 
 import java.util.Collections;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -19,9 +20,15 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/**
+ * Runtime Springfox documentation, only in api-docs mode springfox. It scans the controllers and models
+ * on every start, so deployments serve the spec generated at build time instead, see
+ * {@link com.example.todolist.web.StaticApiDocsController}.
+ */
 @Configuration
 @EnableSwagger2
 @Profile("!test")
+@ConditionalOnProperty(name = "todolist.api-docs.mode", havingValue = "springfox")
 public class SwaggerConfig {
 
 	@Bean
@@ -7,6 +7,6 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class ToDoListApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(ToDoListApplication.class);
+        SpringApplication.run(ToDoListApplication.class, args);
     }
 }
@@ -0,0 +1,47 @@
+package com.example.todolist.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executors behind the /api/async endpoints. Reads and writes get separate pools, so slow
+ * writes cannot take every thread that reads need. Together they should not exceed the connection pool.
+ * Enabled with todolist.async.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todolist.async.enabled")
+public class AsyncConfig {
+
+	public static final String READ_EXECUTOR = "persistenceReadExecutor";
+	public static final String WRITE_EXECUTOR = "persistenceWriteExecutor";
+
+	@Bean(name = READ_EXECUTOR)
+	public ThreadPoolTaskExecutor persistenceReadExecutor(
+			@Value("${todolist.async.read.pool-size:6}") int poolSize,
+			@Value("${todolist.async.read.queue-capacity:200}") int queueCapacity) {
+		return executor("persistence-read-", poolSize, queueCapacity);
+	}
+
+	@Bean(name = WRITE_EXECUTOR)
+	public ThreadPoolTaskExecutor persistenceWriteExecutor(
+			@Value("${todolist.async.write.pool-size:4}") int poolSize,
+			@Value("${todolist.async.write.queue-capacity:100}") int queueCapacity) {
+		return executor("persistence-write-", poolSize, queueCapacity);
+	}
+
+	/**
+	 * Fixed size pool, tasks beyond the queue capacity are rejected instead of waiting
+	 */
+	private static ThreadPoolTaskExecutor executor(String threadNamePrefix, int poolSize, int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(threadNamePrefix);
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+}
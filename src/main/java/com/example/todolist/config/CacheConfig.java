@@ -0,0 +1,109 @@
+package com.example.todolist.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.todolist.model.ToDoEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded read cache in front of the repositories. Cache contents are declared on the repository
+ * methods; evictions issued inside a transaction are applied after it commits, and a value read before
+ * an eviction is not cached after it (see {@link GuardedCaffeineCache}).
+ * Disabled with todolist.cache.enabled=false.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "todolist.cache.enabled", matchIfMissing = true)
+public class CacheConfig {
+
+	/**
+	 * Whether a list with a given id exists, keyed by list id
+	 */
+	public static final String LIST_EXISTS = "listExists";
+
+	/**
+	 * All entries of a list, keyed by list id
+	 */
+	public static final String LIST_ENTRIES = "listEntries";
+
+	/**
+	 * Version of a list, the ETag of its entries, keyed by list id
+	 */
+	public static final String LIST_VERSION = "listVersion";
+
+	@Bean
+	public CacheManager cacheManager(@Value("${todolist.cache.ttl-seconds:300}") long ttlSeconds,
+			@Value("${todolist.cache.max-weight:50000000}") long maxWeight) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+			@Override
+			protected org.springframework.cache.Cache createCaffeineCache(String name) {
+				return new GuardedCaffeineCache(name, createNativeCaffeineCache(name));
+			}
+		};
+		cacheManager.setCaffeine(Caffeine.newBuilder()
+				.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+				.maximumWeight(maxWeight)
+				.weigher(CacheConfig::weigh)
+				.recordStats());
+		cacheManager.setCacheNames(Arrays.asList(LIST_EXISTS, LIST_ENTRIES, LIST_VERSION));
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+
+	/**
+	 * Hit, miss and eviction counters of every cache, published as cache.[name].* metrics
+	 */
+	@Bean
+	public PublicMetrics cacheStatisticsMetrics(CacheManager cacheManager) {
+		return () -> {
+			List<Metric<?>> metrics = new ArrayList<>();
+			for (String name : cacheManager.getCacheNames()) {
+				Object nativeCache = cacheManager.getCache(name).getNativeCache();
+				if (nativeCache instanceof Cache) {
+					Cache<?, ?> cache = (Cache<?, ?>) nativeCache;
+					CacheStats stats = cache.stats();
+					String prefix = "cache." + name;
+					metrics.add(new Metric<>(prefix + ".size", cache.estimatedSize()));
+					metrics.add(new Metric<>(prefix + ".hit.count", stats.hitCount()));
+					metrics.add(new Metric<>(prefix + ".miss.count", stats.missCount()));
+					metrics.add(new Metric<>(prefix + ".eviction.count", stats.evictionCount()));
+					metrics.add(new Metric<>(prefix + ".eviction.weight", stats.evictionWeight()));
+				}
+			}
+			return metrics;
+		};
+	}
+
+	/**
+	 * Approximate cost of a cached value in characters, dominated by entry descriptions
+	 */
+	static int weigh(Object key, Object value) {
+		if (!(value instanceof Collection)) {
+			return 1;
+		}
+		long weight = 1;
+		for (Object element : (Collection<?>) value) {
+			weight++;
+			if (element instanceof ToDoEntry && ((ToDoEntry) element).getDescription() != null) {
+				weight += ((ToDoEntry) element).getDescription().length();
+			}
+		}
+		return (int) Math.min(weight, Integer.MAX_VALUE);
+	}
+}
@@ -0,0 +1,30 @@
+package com.example.todolist.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.example.todolist.startup.BackgroundJpaBootstrapPostProcessor;
+import com.example.todolist.startup.LazyInitBeanFactoryPostProcessor;
+
+/**
+ * Profile "fast" for scale-out: lazy singletons and a background Hibernate bootstrap, see
+ * application-fast.properties for the rest. The phases of every start are logged by
+ * {@link com.example.todolist.startup.StartupTimeline}.
+ */
+@Configuration
+@Profile("fast")
+public class FastStartConfig {
+
+	@Bean
+	public static BeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor() {
+		return new LazyInitBeanFactoryPostProcessor();
+	}
+
+	@Bean
+	public static BeanPostProcessor backgroundJpaBootstrapPostProcessor() {
+		return new BackgroundJpaBootstrapPostProcessor();
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.todolist.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Caffeine cache that never lets a value read before an eviction be stored after it. A reader may load
+ * a value, a writer commit and evict, and only then the reader put what it loaded, which would keep the
+ * old value until it expires. So a miss leaves a placeholder owned by the reading thread, a put only
+ * replaces the placeholder of its own thread, and an eviction removes the placeholder as well. A value
+ * whose placeholder is gone is dropped, the next read loads it again.
+ * <p>
+ * Puts deferred until the reading transaction commits still come from the reading thread.
+ */
+class GuardedCaffeineCache extends AbstractValueAdaptingCache {
+
+	private final String name;
+
+	private final Cache<Object, Object> cache;
+
+	private final ConcurrentMap<Object, Object> map;
+
+	GuardedCaffeineCache(String name, Cache<Object, Object> cache) {
+		super(true);
+		this.name = name;
+		this.cache = cache;
+		this.map = cache.asMap();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return cache;
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		Object value = cache.getIfPresent(key);
+		if (value instanceof Placeholder) {
+			return null;
+		}
+		if (value == null) {
+			map.putIfAbsent(key, new Placeholder());
+		}
+		return value;
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper cached = get(key);
+		if (cached != null) {
+			@SuppressWarnings("unchecked")
+			T value = (T) cached.get();
+			return value;
+		}
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+		put(key, value);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		Object current = map.get(key);
+		if (current instanceof Placeholder && ((Placeholder) current).owner == Thread.currentThread()) {
+			map.replace(key, current, toStoreValue(value));
+		}
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existing = get(key);
+		if (existing == null) {
+			put(key, value);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		map.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	/**
+	 * Marks a key that is being loaded by the owning thread, seen as a miss by everyone
+	 */
+	static final class Placeholder {
+
+		final Thread owner = Thread.currentThread();
+	}
+}
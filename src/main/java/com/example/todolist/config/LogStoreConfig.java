@@ -0,0 +1,31 @@
+package com.example.todolist.config;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.example.todolist.repository.store.LogStore;
+
+/**
+ * Log-structured storage for lists and entries, replacing the JPA repositories in the "log" profile
+ */
+@Configuration
+@Profile("log")
+public class LogStoreConfig {
+
+	@Bean(destroyMethod = "close")
+	public LogStore logStore(@Value("${todolist.log.path:data/todolist.log}") String path,
+			@Value("${todolist.log.initial-size-mb:16}") int initialSizeMb,
+			@Value("${todolist.log.sync-interval-ms:1000}") long syncIntervalMs,
+			@Value("${todolist.log.compaction-interval-ms:60000}") long compactionIntervalMs,
+			@Value("${todolist.log.compaction-garbage-ratio:0.5}") double compactionGarbageRatio,
+			@Value("${todolist.log.compaction-min-size-mb:16}") int compactionMinSizeMb) {
+		LogStore store = new LogStore(Paths.get(path), initialSizeMb << 20, compactionGarbageRatio,
+				compactionMinSizeMb << 20);
+		store.scheduleMaintenance(syncIntervalMs, compactionIntervalMs);
+		return store;
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.example.todolist.repository.store.MemoryStore;
+
+/**
+ * Volatile in-memory storage for lists and entries, replacing the JPA repositories in the "memory" profile
+ */
+@Configuration
+@Profile("memory")
+public class MemoryStoreConfig {
+
+	@Bean
+	public MemoryStore memoryStore(@Value("${todolist.memory.lock-stripes:16}") int lockStripes) {
+		return new MemoryStore(lockStripes);
+	}
+}
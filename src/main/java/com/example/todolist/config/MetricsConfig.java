@@ -0,0 +1,56 @@
+package com.example.todolist.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connection pool metrics (hikaricp.*), including the time requests wait for a connection
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public static BeanPostProcessor hikariMetricsPostProcessor() {
+		return new HikariMetricsPostProcessor();
+	}
+
+	/**
+	 * Attaches the meter registry to the pool before it starts. The registry is looked up lazily so it is not
+	 * created ahead of the other post processors.
+	 */
+	static class HikariMetricsPostProcessor implements BeanPostProcessor, ApplicationContextAware {
+
+		private ApplicationContext context;
+
+		@Override
+		public void setApplicationContext(ApplicationContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			if (bean instanceof HikariDataSource) {
+				HikariDataSource dataSource = (HikariDataSource) bean;
+				if (dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null) {
+					dataSource.setMetricsTrackerFactory(
+							new MicrometerMetricsTrackerFactory(context.getBean(MeterRegistry.class)));
+				}
+			}
+			return bean;
+		}
+	}
+}
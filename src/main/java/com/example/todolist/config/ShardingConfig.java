@@ -0,0 +1,121 @@
+package com.example.todolist.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import com.example.todolist.id.SnowflakeIdGenerator;
+import com.example.todolist.shard.ShardRoutingAspect;
+import com.example.todolist.shard.ShardSchemaIntegrator;
+import com.example.todolist.shard.ShardedDataSource;
+import com.example.todolist.shard.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lists and their entries on a single database by default. Profile "sharded" partitions them over
+ * todolist.shards.count databases by list id instead, see application-sharded.properties.
+ */
+@Configuration
+public class ShardingConfig {
+
+	@Bean
+	@Profile("!sharded")
+	public Shards shards() {
+		return Shards.single();
+	}
+
+	@Configuration
+	@Profile("sharded")
+	static class Sharded {
+
+		@Value("${todolist.shards.count}")
+		private int count;
+
+		@Bean
+		public Shards shards(@Value("${todolist.shards.gather-threads:8}") int gatherThreads) {
+			return new Shards(count, gatherThreads);
+		}
+
+		/**
+		 * The data source of JPA and JDBC, with a connection pool per shard named shard-0, shard-1, ... in
+		 * the hikaricp metrics
+		 */
+		@Bean(destroyMethod = "close")
+		public ShardedDataSource dataSource(@Value("${todolist.shards.url}") String url,
+				@Value("${todolist.shards.username:}") String username,
+				@Value("${todolist.shards.password:}") String password,
+				@Value("${todolist.shards.pool-size:10}") int poolSize, MeterRegistry meterRegistry) {
+			List<DataSource> shards = new ArrayList<>(count);
+			for (int shard = 0; shard < count; shard++) {
+				HikariDataSource pool = new HikariDataSource();
+				pool.setPoolName("shard-" + shard);
+				pool.setJdbcUrl(url.replace("{shard}", String.valueOf(shard)));
+				pool.setUsername(username);
+				pool.setPassword(password);
+				pool.setMaximumPoolSize(poolSize);
+				pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+				shards.add(pool);
+			}
+			return new ShardedDataSource(shards);
+		}
+
+		/**
+		 * Routes controller calls to their shard, with new list ids from the generator of the node Hibernate
+		 * uses, so the two never hand out the same id
+		 */
+		@Bean
+		public ShardRoutingAspect shardRoutingAspect(Shards shards, @Value("${todolist.id.node-id:0}") int nodeId) {
+			return new ShardRoutingAspect(shards, SnowflakeIdGenerator.forNode(nodeId));
+		}
+
+		@Bean
+		public static BeanPostProcessor shardSchemaPostProcessor() {
+			return new ShardSchemaPostProcessor();
+		}
+	}
+
+	/**
+	 * Hands the shards to Hibernate, so {@link ShardSchemaIntegrator} creates the schema on all of them
+	 */
+	static class ShardSchemaPostProcessor implements BeanPostProcessor, ApplicationContextAware {
+
+		private ApplicationContext context;
+
+		@Override
+		public void setApplicationContext(ApplicationContext context) {
+			this.context = context;
+		}
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+			if (bean instanceof AbstractEntityManagerFactoryBean) {
+				List<DataSource> shards = context.getBean(ShardedDataSource.class).getShards();
+				IntegratorProvider integrators = () -> Collections.singletonList(new ShardSchemaIntegrator(shards));
+				((AbstractEntityManagerFactoryBean) bean).getJpaPropertyMap().put("hibernate.integrator_provider",
+						integrators);
+			}
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			return bean;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.todolist.config;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import javax.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import com.example.todolist.metrics.StatementCountInterceptor;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.web.CompressionThresholdFilter;
+import com.example.todolist.web.ConditionalGetInterceptor;
+import com.example.todolist.web.ListsVersion;
+import com.example.todolist.web.MappingJackson2CborHttpMessageConverter;
+import com.example.todolist.web.MappingJackson2SmileHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class WebConfig extends WebMvcConfigurerAdapter {
+
+	/**
+	 * Resolved on the first request, so setting up the web layer does not wait for JPA
+	 */
+	@Lazy
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private ListsVersion listsVersion;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Shards shards;
+
+	@Autowired
+	private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// first, so statements issued by the other interceptors are counted
+		registry.addInterceptor(new StatementCountInterceptor(meterRegistry))
+				.addPathPatterns("/api/**");
+		registry.addInterceptor(new ConditionalGetInterceptor(listRepository, listsVersion, shards))
+				.addPathPatterns("/api", "/api/*", "/api/*/entries");
+	}
+
+	/**
+	 * CBOR and Smile next to JSON, configured like the JSON mapper. They come after JSON, so it stays
+	 * the default for clients accepting any media type.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+		objectMapperBuilder.configure(cborMapper);
+		converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+		ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+		objectMapperBuilder.configure(smileMapper);
+		converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper));
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+	public FilterRegistrationBean compressionThresholdFilter(
+			@Value("${server.compression.min-response-size:2048}") int minResponseSize) {
+		FilterRegistrationBean registration = new FilterRegistrationBean(
+				new CompressionThresholdFilter(minResponseSize));
+		registration.addUrlPatterns("/api/*");
+		registration.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC));
+		return registration;
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.todolist.controller;
+
+import static com.example.todolist.web.MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR_VALUE;
+import static com.example.todolist.web.MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE_VALUE;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.todolist.config.AsyncConfig;
+import com.example.todolist.exceptions.ServiceUnavailableException;
+import com.example.todolist.model.BulkEntryReport;
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+
+/**
+ * The JSON, CBOR and Smile endpoints of {@link ToDoListApiController} under /api/async. Each call is
+ * handed to a bounded persistence executor and the servlet thread is released right away. Reads and
+ * writes use separate executors. A full queue or a call exceeding todolist.async.timeout-ms is answered
+ * with 503. Enabled with todolist.async.enabled=true.
+ */
+@RestController
+@RequestMapping(value = "api/async", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE,
+		APPLICATION_SMILE_VALUE })
+@ConditionalOnProperty(name = "todolist.async.enabled")
+public class AsyncToDoListApiController {
+
+	@Autowired
+	private ToDoListApiController controller;
+	@Autowired
+	@Qualifier(AsyncConfig.READ_EXECUTOR)
+	private AsyncTaskExecutor readExecutor;
+	@Autowired
+	@Qualifier(AsyncConfig.WRITE_EXECUTOR)
+	private AsyncTaskExecutor writeExecutor;
+	@Value("${todolist.async.timeout-ms:5000}")
+	private long timeout;
+
+	@GetMapping
+	public DeferredResult<Collection<ToDoList>> getLists() {
+		return submit(readExecutor, controller::getLists);
+	}
+
+	@GetMapping(params = "limit")
+	public DeferredResult<Collection<ToDoListSummary>> getListSummaries(@RequestParam(defaultValue = "0") Long after,
+			@RequestParam int limit) {
+		return submit(readExecutor, () -> controller.getListSummaries(after, limit));
+	}
+
+	@GetMapping("/{listId}")
+	public DeferredResult<Collection<ToDoEntry>> getListEntries(@PathVariable Long listId) {
+		return submit(readExecutor, () -> controller.getListEntries(listId));
+	}
+
+	@PostMapping
+	public DeferredResult<ResponseEntity<ToDoList>> createList(@RequestBody @Valid ToDoList list) {
+		return submit(writeExecutor, () -> created(controller.createList(list)));
+	}
+
+	@PostMapping("/{listId}")
+	public DeferredResult<ResponseEntity<ToDoEntry>> createEntry(@PathVariable Long listId,
+			@RequestBody @Valid ToDoEntry entry) {
+		return submit(writeExecutor, () -> created(controller.createEntry(listId, entry)));
+	}
+
+	@PostMapping(value = "/{listId}/entries", consumes = { MediaType.APPLICATION_JSON_VALUE,
+			APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+	public DeferredResult<ResponseEntity<BulkEntryReport>> createEntries(@PathVariable Long listId,
+			@RequestBody List<ToDoEntry> entries) {
+		return submit(writeExecutor, () -> created(controller.createEntries(listId, entries)));
+	}
+
+	@DeleteMapping("/{listId}")
+	public DeferredResult<ToDoList> deleteList(@PathVariable Long listId) {
+		return submit(writeExecutor, () -> controller.deleteList(listId));
+	}
+
+	@DeleteMapping("/{entryId}/{listId}")
+	public DeferredResult<ToDoEntry> deleteEntry(@PathVariable Long listId, @PathVariable Long entryId) {
+		return submit(writeExecutor, () -> controller.deleteEntry(listId, entryId));
+	}
+
+	@ExceptionHandler(EmptyResultDataAccessException.class)
+	@ResponseStatus(HttpStatus.NOT_FOUND)
+	public void notFound() {
+		// No-op, return empty 404
+	}
+
+	/**
+	 * Runs the call on the executor. Rejected and timed out calls complete with
+	 * {@link ServiceUnavailableException}, a timed out call still waiting in the queue is dropped.
+	 */
+	<T> DeferredResult<T> submit(AsyncTaskExecutor executor, Callable<T> call) {
+		DeferredResult<T> result = new DeferredResult<>(timeout);
+		try {
+			Future<?> task = executor.submit(() -> {
+				try {
+					result.setResult(call.call());
+				} catch (Exception e) {
+					result.setErrorResult(e);
+				}
+			});
+			result.onTimeout(() -> {
+				task.cancel(false);
+				result.setErrorResult(new ServiceUnavailableException());
+			});
+		} catch (TaskRejectedException e) {
+			result.setErrorResult(new ServiceUnavailableException());
+		}
+		return result;
+	}
+
+	private static <T> ResponseEntity<T> created(T body) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(body);
+	}
+}
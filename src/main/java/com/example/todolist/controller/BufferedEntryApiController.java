@@ -0,0 +1,60 @@
+package com.example.todolist.controller;
+
+import static com.example.todolist.web.MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR_VALUE;
+import static com.example.todolist.web.MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE_VALUE;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.todolist.exceptions.DataIntegrationViolationException;
+import com.example.todolist.exceptions.NotFoundException;
+import com.example.todolist.exceptions.ServiceUnavailableException;
+import com.example.todolist.ingest.EntryWriteBuffer;
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * Entry creation through the {@link EntryWriteBuffer}, for clients that do not need the stored entry
+ * back. Enabled with todolist.write-buffer.enabled=true.
+ */
+@RestController
+@RequestMapping(value = "api", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE,
+		APPLICATION_SMILE_VALUE })
+@ConditionalOnProperty(name = "todolist.write-buffer.enabled")
+public class BufferedEntryApiController {
+
+	@Autowired
+	private ListRepository listRepository;
+	@Autowired
+	private EntryWriteBuffer entryWriteBuffer;
+
+	/**
+	 * Returns 202 once the entry is queued, it is stored shortly after. Returns 400 if invalid data
+	 * supplied, 404 if list not found and 503 while the buffer is full.
+	 */
+	@PostMapping("/{listId}/buffered")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public void createEntry(@PathVariable Long listId, @RequestBody @Valid ToDoEntry entry)
+			throws InterruptedException {
+		if (entry.getDescription().length() > ToDoEntry.MAX_DESCRIPTION_LENGTH) {
+			throw new DataIntegrationViolationException();
+		}
+		if (!listRepository.exists(listId)) {
+			throw new NotFoundException();
+		}
+		entry.setId(null);
+		if (!entryWriteBuffer.offer(listId, entry)) {
+			throw new ServiceUnavailableException();
+		}
+	}
+}
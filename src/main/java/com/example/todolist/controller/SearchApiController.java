@@ -0,0 +1,49 @@
+package com.example.todolist.controller;
+
+import static com.example.todolist.web.MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR_VALUE;
+import static com.example.todolist.web.MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE_VALUE;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.todolist.exceptions.DataIntegrationViolationException;
+import com.example.todolist.search.EntryIndex;
+import com.example.todolist.search.SearchHit;
+import com.example.todolist.search.Tokenizer;
+
+/**
+ * Full-text search over entry descriptions, answered from the {@link EntryIndex}
+ */
+@RestController
+@RequestMapping(value = "api/search", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE,
+		APPLICATION_SMILE_VALUE })
+public class SearchApiController {
+
+	/**
+	 * Most hits returned by one search, bigger limits are capped to it
+	 */
+	static final int MAX_LIMIT = 100;
+
+	@Autowired
+	private EntryIndex entryIndex;
+
+	/**
+	 * Returns up to {@code limit} entries containing all words of {@code q}, best match first,
+	 * optionally only those of list {@code listId}. Returns 400 if q has no searchable word or limit
+	 * is not positive.
+	 */
+	@GetMapping
+	public List<SearchHit> search(@RequestParam String q, @RequestParam(required = false) Long listId,
+			@RequestParam(defaultValue = "20") int limit) {
+		if (limit < 1 || Tokenizer.tokenize(q).isEmpty()) {
+			throw new DataIntegrationViolationException();
+		}
+		return entryIndex.search(q, listId, Math.min(limit, MAX_LIMIT));
+	}
+}
@@ -1,12 +1,26 @@
 package com.example.todolist.controller;
 
+import static com.example.todolist.web.MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR_VALUE;
+import static com.example.todolist.web.MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE_VALUE;
+
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,36 +31,125 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.todolist.exceptions.DataIntegrationViolationException;
 import com.example.todolist.exceptions.NotFoundException;
+import com.example.todolist.model.BulkEntryReport;
 import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoEntrySummary;
 import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
 import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.EntryRepositoryCustom;
 import com.example.todolist.repository.ListRepository;
+import com.example.todolist.search.EntryIndex;
+import com.example.todolist.search.ListNameIndex;
+import com.example.todolist.search.ListSuggestion;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.web.ListsVersion;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 @RestController
-@RequestMapping(value = "api", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "api", produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE,
+        APPLICATION_SMILE_VALUE })
 public class ToDoListApiController {
 
+    /**
+     * Largest page returned by the summary listing, bigger limits are capped to it
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Most list names suggested for one prefix, bigger limits are capped to it
+     */
+    static final int MAX_SUGGESTIONS = 100;
+
+    /**
+     * Newline delimited JSON, one entity per line
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
 	@Autowired
     private ListRepository listRepository;
 	@Autowired
     private EntryRepository entryRepository;
+	@Autowired
+    private ListsVersion listsVersion;
+	@Autowired
+    private EntryIndex entryIndex;
+	@Autowired
+    private ListNameIndex listNameIndex;
+	@PersistenceContext
+    private EntityManager entityManager;
+	@Autowired
+    private ObjectMapper objectMapper;
+	@Autowired
+    private Shards shards;
 
 
     /**
-     * Returns available lists with code 200
+     * Returns available lists with code 200, or 304 if If-None-Match carries the current ETag.
+     * The shards are queried in parallel.
      */
     @GetMapping
     public Collection<ToDoList> getLists() {
-        return listRepository.findAll();
+        List<List<ToDoList>> perShard = shards.gather(listRepository::findAllWithEntries);
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<ToDoList> lists = new ArrayList<>();
+        perShard.forEach(lists::addAll);
+        lists.sort(Comparator.comparing(ToDoList::getId));
+        return lists;
+    }
+
+    /**
+     * Returns up to {@code limit} list summaries (id, name and entry count) ordered by id,
+     * starting after list id {@code after}. Pass the last id of a page to fetch the next one.
+     * Returns 400 if limit is not positive.
+     */
+    @GetMapping(params = "limit")
+    public Collection<ToDoListSummary> getListSummaries(@RequestParam(defaultValue = "0") Long after,
+            @RequestParam int limit) {
+        if (limit < 1) {
+            throw new DataIntegrationViolationException();
+        }
+        PageRequest page = new PageRequest(0, Math.min(limit, MAX_PAGE_SIZE));
+        List<List<ToDoListSummary>> perShard = shards.gather(() -> listRepository.findSummariesAfter(after, page));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        // every shard returned its first page, the first of all of them are the page
+        List<ToDoListSummary> summaries = new ArrayList<>();
+        perShard.forEach(summaries::addAll);
+        summaries.sort(Comparator.comparing(ToDoListSummary::getId));
+        return summaries.size() > page.getPageSize() ? summaries.subList(0, page.getPageSize()) : summaries;
     }
 
     /**
-     * Lists all entries in the specified list, 404 if list not found
+     * Returns up to {@code limit} lists (id and name) whose name starts with {@code prefix}, ignoring
+     * case, in alphabetical order. Answered from memory for type-ahead, without a database query.
+     * Returns 400 if limit is not positive.
+     */
+    @GetMapping("/lists/suggest")
+    public List<ListSuggestion> suggestLists(@RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new DataIntegrationViolationException();
+        }
+        return listNameIndex.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Lists all entries in the specified list, 404 if list not found.
+     * Returns 304 if If-None-Match carries the list's current ETag.
      */
     @GetMapping("/{listId}")
     public Collection<ToDoEntry> getListEntries(@PathVariable Long listId) {
@@ -56,23 +159,76 @@ public class ToDoListApiController {
         return entryRepository.findAllByListId(listId);
     }
 
+    /**
+     * Streams all entries in the specified list as newline delimited JSON, 404 if list not found.
+     * Entries are written and detached as they are read, so memory use does not grow with the list.
+     */
+    @GetMapping(value = "/{listId}", produces = APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public void streamListEntries(@PathVariable Long listId, HttpServletResponse response) throws IOException {
+        if (!listRepository.exists(listId)) {
+            throw new NotFoundException();
+        }
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+
+        ObjectWriter writer = objectMapper.writerFor(ToDoEntry.class);
+        try (Stream<ToDoEntry> entries = entryRepository.streamAllByListId(listId);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            Iterator<ToDoEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                ToDoEntry entry = iterator.next();
+                writer.writeValue(generator, entry);
+                generator.writeRaw('\n');
+                entityManager.detach(entry);
+            }
+        }
+    }
+
+    /**
+     * Lists id, description preview and description length of all entries in the specified list,
+     * without loading the descriptions, 404 if list not found.
+     * Returns 304 if If-None-Match carries the list's current ETag.
+     */
+    @GetMapping("/{listId}/entries")
+    public Collection<ToDoEntrySummary> getListEntrySummaries(@PathVariable Long listId) {
+        if (!listRepository.exists(listId)) {
+            throw new NotFoundException();
+        }
+        return entryRepository.findSummariesByListId(listId);
+    }
+
+    /**
+     * Returns the entry with its full description, 404 if there is no such entry in the list.
+     */
+    @GetMapping("/{listId}/entries/{entryId}")
+    public ToDoEntry getEntry(@PathVariable Long listId, @PathVariable Long entryId) {
+        return ensureExists(entryRepository.findByIdAndListId(entryId, listId));
+    }
+
     /**
      * Returns 201 and new entity if operation successful or 400 if invalid data supplied.
+     * Returns 400 as well if the name is taken, on any shard, as all lists of a name are on one shard.
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Transactional
     public ToDoList createList(@RequestBody @Valid ToDoList list) {
     		for(ToDoEntry entry: list.getEntries()) {
+    			// new entries only, an id sent by the client would take over the entry of another list
+    			entry.setId(null);
     			entry.setList(list);
     		}
     		ToDoList saved = null;
     		
     		try {
-    			saved = listRepository.save(list);
+    			saved = listRepository.insert(list);
     		} catch (DataIntegrityViolationException e) {
     			throw new DataIntegrationViolationException();
 		}
+    		listsVersion.increment();
+    		entryIndex.addAll(saved.getId(), saved.getEntries());
+    		listNameIndex.add(saved.getId(), saved.getName());
     		
         return saved;
     }
@@ -85,44 +241,103 @@ public class ToDoListApiController {
      */
     @PostMapping("/{listId}")
     @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
     public ToDoEntry createEntry(@PathVariable Long listId, @RequestBody @Valid ToDoEntry entry) {
-    		if(entry.getDescription().length()>16000) {
+    		if(entry.getDescription().length()>ToDoEntry.MAX_DESCRIPTION_LENGTH) {
     			throw new DataIntegrationViolationException();
     		}
         ToDoList list = ensureExists(listRepository.findOne(listId));
+        // always a new entry, an id sent by the client would move the entry out of its list
+        entry.setId(null);
         entry.setList(list);
         ToDoEntry saved = entryRepository.save(entry);
+        listRepository.incrementVersion(listId);
+        listsVersion.increment();
+        entryIndex.add(listId, saved);
         
         return saved;
     }
 
+    /**
+     * Creates all entries of a JSON, CBOR or Smile array in the specified list. Returns 201 and a report
+     * with the id or rejection reason of every entry, 404 if list not found. Entries without description
+     * or with description longer than 16k chars are rejected one by one, the others are stored.
+     */
+    @PostMapping(value = "/{listId}/entries", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
+    public BulkEntryReport createEntries(@PathVariable Long listId, @RequestBody List<ToDoEntry> entries) {
+        if (!listRepository.exists(listId)) {
+            throw new NotFoundException();
+        }
+        return importEntries(listId, entries.iterator());
+    }
+
+    /**
+     * Same as {@link #createEntries(Long, List)} for newline delimited JSON. Entries are read and
+     * stored batch by batch, so the request body is never held in memory as a whole.
+     * Returns 400 if the body is not valid JSON.
+     */
+    @PostMapping(value = "/{listId}/entries", consumes = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Transactional
+    public BulkEntryReport createEntriesFromStream(@PathVariable Long listId, HttpServletRequest request)
+            throws IOException {
+        if (!listRepository.exists(listId)) {
+            throw new NotFoundException();
+        }
+        try (MappingIterator<ToDoEntry> entries = objectMapper.readerFor(ToDoEntry.class)
+                .readValues(request.getInputStream())) {
+            return importEntries(listId, entries);
+        } catch (RuntimeException e) {
+            // MappingIterator rethrows parse errors unchecked
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new DataIntegrationViolationException();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Returns 200 if successful, 404 if no such list id is found
      * @return 
      */
     @DeleteMapping("/{listId}")
+    @Transactional
     public ToDoList deleteList(@PathVariable Long listId) {
-    		ToDoList list = ensureExists(listRepository.findOne(listId));
-        listRepository.delete(list);
+    		ToDoList list = ensureExists(listRepository.findOneWithEntries(listId));
+        // bulk statements instead of cascading, so the cost does not grow with the number of entries
+        entryRepository.bulkDeleteByListId(listId);
+        listRepository.bulkDeleteById(listId);
+        listsVersion.increment();
+        entryIndex.removeList(listId);
+        listNameIndex.remove(listId, list.getName());
         return list;
     }
 
     /**
      * Deletes given entry if list and entry is valid. Return 404 if ether list or entry id is incorrect.
      * Return 400 if specified entry ID does not belong to the list.
-     * @return 
+     * @return the deleted entry, identified by its id
      */
     @DeleteMapping("/{entryId}/{listId}")
+    @Transactional
     public ToDoEntry deleteEntry(@PathVariable Long listId, @PathVariable Long entryId) {
-        ToDoList list = ensureExists(listRepository.findOne(listId));
-        ToDoEntry entry = ensureExists(entryRepository.findOne(entryId));
-        
-        if (entry.getList().getId() != list.getId()) {
+        if (entryRepository.bulkDeleteByIdAndListId(entryId, listId) == 0) {
+            // nothing deleted, only now find out which of the ids is wrong, the entry may be on any shard
+            if (!listRepository.exists(listId)
+                    || !shards.gather(() -> entryRepository.exists(entryId)).contains(true)) {
+                throw new NotFoundException();
+            }
             throw new DataIntegrationViolationException();
         }
-        entryRepository.delete(entry);
-        
-        return entry;
+        listRepository.incrementVersion(listId);
+        listsVersion.increment();
+        entryIndex.remove(entryId);
+        ToDoEntry deleted = new ToDoEntry();
+        deleted.setId(entryId);
+        return deleted;
     }
 
     @ExceptionHandler(EmptyResultDataAccessException.class)
@@ -131,6 +346,57 @@ public class ToDoListApiController {
         // No-op, return empty 404
     }
 
+    private BulkEntryReport importEntries(Long listId, Iterator<ToDoEntry> entries) {
+        BulkEntryReport report = new BulkEntryReport();
+        List<ToDoEntry> batch = new ArrayList<>(EntryRepositoryCustom.BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(EntryRepositoryCustom.BATCH_SIZE);
+        int index = 0;
+        while (entries.hasNext()) {
+            ToDoEntry entry = entries.next();
+            String error = validate(entry);
+            if (error != null) {
+                report.rejected(index, error);
+            } else {
+                entry.setId(null);
+                batch.add(entry);
+                batchIndexes.add(index);
+                if (batch.size() == EntryRepositoryCustom.BATCH_SIZE) {
+                    storeBatch(listId, batch, batchIndexes, report);
+                }
+            }
+            index++;
+        }
+        storeBatch(listId, batch, batchIndexes, report);
+        if (report.getCreated() > 0) {
+            listRepository.incrementVersion(listId);
+            listsVersion.increment();
+        }
+        return report;
+    }
+
+    private void storeBatch(Long listId, List<ToDoEntry> batch, List<Integer> batchIndexes, BulkEntryReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        entryRepository.insertAll(listId, batch);
+        entryIndex.addAll(listId, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            report.created(batchIndexes.get(i), batch.get(i).getId());
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static String validate(ToDoEntry entry) {
+        if (entry == null || entry.getDescription() == null) {
+            return "description is required";
+        }
+        if (entry.getDescription().length() > ToDoEntry.MAX_DESCRIPTION_LENGTH) {
+            return "description is longer than " + ToDoEntry.MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        return null;
+    }
+
     private static <T> T ensureExists(T object) {
         if (object == null) {
             throw new NotFoundException();
@@ -0,0 +1,10 @@
+package com.example.todolist.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code=HttpStatus.SERVICE_UNAVAILABLE, reason="Server busy, try again later.")
+public class ServiceUnavailableException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+}
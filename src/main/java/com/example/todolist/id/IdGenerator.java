@@ -0,0 +1,12 @@
+package com.example.todolist.id;
+
+/**
+ * Source of ids for new lists and entries
+ */
+public interface IdGenerator {
+
+	/**
+	 * Returns an id never returned before
+	 */
+	long nextId();
+}
@@ -0,0 +1,83 @@
+package com.example.todolist.id;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ids created in memory, unique across nodes without any coordination. An id is made of the
+ * milliseconds since {@link #EPOCH}, the id of the node and a sequence number within the millisecond:
+ * <pre>
+ * | 41 bits milliseconds | 5 bits node | 7 bits sequence |
+ * </pre>
+ * 53 bits in total, which lasts until 2089 and keeps ids exact for JavaScript clients of the JSON API.
+ * <p>
+ * Ids of a node never decrease. A node needing more than 128 ids in a millisecond, or whose clock goes
+ * back, continues on the following milliseconds instead of waiting, and the clock catches up later. A
+ * node restarted with its clock set back by more than that may repeat ids.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+	/**
+	 * 2020-01-01T00:00:00Z, the first millisecond ids can represent
+	 */
+	public static final long EPOCH = 1577836800000L;
+
+	static final int NODE_BITS = 5;
+
+	static final int SEQUENCE_BITS = 7;
+
+	public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	/**
+	 * One generator per node id in the JVM, two would hand out the same ids
+	 */
+	private static final ConcurrentMap<Integer, SnowflakeIdGenerator> NODES = new ConcurrentHashMap<>();
+
+	private final long node;
+
+	private final LongSupplier clock;
+
+	/**
+	 * Milliseconds since the epoch and sequence of the last id as one number, so an overflowing sequence
+	 * carries into the milliseconds
+	 */
+	private final AtomicLong last = new AtomicLong();
+
+	SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		this.node = (long) nodeId << SEQUENCE_BITS;
+		this.clock = clock;
+	}
+
+	/**
+	 * The generator of the given node, shared by all its users in this JVM
+	 */
+	public static SnowflakeIdGenerator forNode(int nodeId) {
+		return NODES.computeIfAbsent(nodeId, id -> new SnowflakeIdGenerator(id, System::currentTimeMillis));
+	}
+
+	@Override
+	public long nextId() {
+		long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+		long state = last.accumulateAndGet(now, (previous, time) -> Math.max(previous + 1, time));
+		return (state >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node | (state & SEQUENCE_MASK);
+	}
+
+	/**
+	 * Milliseconds since 1970 the id was created at, later than the actual time if ids were borrowed
+	 * from following milliseconds
+	 */
+	public static long timestamp(long id) {
+		return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+	}
+
+	public static int nodeId(long id) {
+		return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+	}
+}
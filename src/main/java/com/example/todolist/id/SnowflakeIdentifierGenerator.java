@@ -0,0 +1,56 @@
+package com.example.todolist.id;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate id generator handing out ids of the {@link SnowflakeIdGenerator} of the node configured
+ * with the Hibernate setting {@value #NODE_ID}, 0 if not set. Ids are created without a database round
+ * trip, so inserts can be batched right away. With the parameter {@value #KEEP_ASSIGNED} set to true, an
+ * entity that already has an id keeps it, e.g. a list whose id was created up front to pick its shard.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator, Configurable {
+
+	/**
+	 * Fully qualified name, for {@code @GenericGenerator(strategy = ...)}
+	 */
+	public static final String STRATEGY = "com.example.todolist.id.SnowflakeIdentifierGenerator";
+
+	public static final String NODE_ID = "todolist.id.node-id";
+
+	public static final String KEEP_ASSIGNED = "keep-assigned";
+
+	private IdGenerator generator;
+
+	private boolean keepAssigned;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		Object nodeId = serviceRegistry.getService(ConfigurationService.class).getSettings().get(NODE_ID);
+		try {
+			generator = SnowflakeIdGenerator.forNode(nodeId == null ? 0 : Integer.parseInt(nodeId.toString().trim()));
+		} catch (IllegalArgumentException e) {
+			throw new MappingException("Invalid " + NODE_ID + ": " + e.getMessage(), e);
+		}
+		keepAssigned = Boolean.parseBoolean(params.getProperty(KEEP_ASSIGNED));
+	}
+
+	@Override
+	public Serializable generate(SessionImplementor session, Object object) {
+		if (keepAssigned) {
+			Serializable assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+			if (assigned != null) {
+				return assigned;
+			}
+		}
+		return generator.nextId();
+	}
+}
@@ -0,0 +1,230 @@
+package com.example.todolist.ingest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.search.EntryIndex;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.web.ListsVersion;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Write-behind buffer for new entries. Entries wait in a bounded queue and a single writer thread
+ * stores them in one transaction per batch, once todolist.write-buffer.batch-size entries are queued
+ * or todolist.write-buffer.flush-interval-ms after the first one arrived. Everything still queued is
+ * written on shutdown. Enabled with todolist.write-buffer.enabled=true.
+ * <p>
+ * Entries of a list deleted before its batch is written are dropped and counted as
+ * todolist.write-buffer.dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.write-buffer.enabled")
+public class EntryWriteBuffer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EntryWriteBuffer.class);
+
+	@Autowired
+	private EntryRepository entryRepository;
+	@Autowired
+	private ListRepository listRepository;
+	@Autowired
+	private ListsVersion listsVersion;
+	@Autowired
+	private EntryIndex entryIndex;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private Shards shards;
+
+	@Value("${todolist.write-buffer.capacity:10000}")
+	private int capacity;
+	@Value("${todolist.write-buffer.batch-size:500}")
+	private int batchSize;
+	@Value("${todolist.write-buffer.flush-interval-ms:200}")
+	private long flushIntervalMs;
+	@Value("${todolist.write-buffer.offer-timeout-ms:100}")
+	private long offerTimeoutMs;
+
+	private BlockingQueue<PendingEntry> queue;
+	private TransactionTemplate transactionTemplate;
+	private Counter written;
+	private Counter dropped;
+	private Thread writer;
+	private volatile boolean running;
+
+	/**
+	 * Held shared by offers and exclusively by stop, so no entry is queued once the writer may have
+	 * seen the queue empty for the last time
+	 */
+	private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(capacity);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		meterRegistry.gaugeCollectionSize("todolist.write-buffer.queued", Tags.empty(), queue);
+		written = meterRegistry.counter("todolist.write-buffer.written");
+		dropped = meterRegistry.counter("todolist.write-buffer.dropped");
+		running = true;
+		writer = new Thread(this::run, "entry-write-buffer");
+		writer.start();
+	}
+
+	/**
+	 * Stops accepting entries and waits until the queued ones are written
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		stopLock.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			stopLock.writeLock().unlock();
+		}
+		writer.join();
+	}
+
+	/**
+	 * Queues the entry for the given list. Waits up to todolist.write-buffer.offer-timeout-ms while the
+	 * queue is full. Returns false if the entry was not accepted. An accepted entry is written even if
+	 * the buffer is stopped right after.
+	 */
+	public boolean offer(Long listId, ToDoEntry entry) throws InterruptedException {
+		stopLock.readLock().lock();
+		try {
+			return running && queue.offer(new PendingEntry(listId, entry), offerTimeoutMs, TimeUnit.MILLISECONDS);
+		} finally {
+			stopLock.readLock().unlock();
+		}
+	}
+
+	public int queued() {
+		return queue.size();
+	}
+
+	private void run() {
+		List<PendingEntry> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+				while (batch.size() < batchSize && running) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() == batchSize || remaining <= 0) {
+						break;
+					}
+					PendingEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				// on shutdown the rest of the queue is written without waiting
+				queue.drainTo(batch, batchSize - batch.size());
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				LOG.error("Could not write {} buffered entries", batch.size(), e);
+				dropped.increment(batch.size());
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Writes the batch in one transaction per shard. If that fails, typically because a list was deleted
+	 * in the meantime, every list is retried in its own transaction and the lists that still fail are
+	 * dropped.
+	 */
+	void write(List<PendingEntry> batch) {
+		Map<Integer, Map<Long, List<ToDoEntry>>> byShard = new LinkedHashMap<>();
+		for (PendingEntry pending : batch) {
+			byShard.computeIfAbsent(shards.shardOf(pending.listId), shard -> new LinkedHashMap<>())
+					.computeIfAbsent(pending.listId, listId -> new ArrayList<>()).add(pending.entry);
+		}
+		byShard.forEach((shard, byList) -> shards.callOn(shard, () -> {
+			writeShard(byList);
+			return null;
+		}));
+	}
+
+	private void writeShard(Map<Long, List<ToDoEntry>> byList) {
+		try {
+			transactionTemplate.execute(status -> {
+				byList.forEach(this::insert);
+				return null;
+			});
+			written.increment(byList.values().stream().mapToInt(List::size).sum());
+		} catch (RuntimeException e) {
+			byList.forEach((listId, entries) -> {
+				try {
+					transactionTemplate.execute(status -> {
+						insert(listId, entries);
+						return null;
+					});
+					written.increment(entries.size());
+				} catch (RuntimeException listFailure) {
+					LOG.warn("Dropped {} buffered entries of list {}", entries.size(), listId, listFailure);
+					dropped.increment(entries.size());
+				}
+			});
+		}
+	}
+
+	private void insert(Long listId, List<ToDoEntry> entries) {
+		for (ToDoEntry entry : entries) {
+			// a failed batch is retried, so ids of the rolled back attempt are discarded
+			entry.setId(null);
+		}
+		entryRepository.insertAll(listId, entries);
+		listRepository.incrementVersion(listId);
+		listsVersion.increment();
+		entryIndex.addAll(listId, entries);
+	}
+
+	static class PendingEntry {
+
+		final Long listId;
+
+		final ToDoEntry entry;
+
+		PendingEntry(Long listId, ToDoEntry entry) {
+			this.listId = listId;
+			this.entry = entry;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.todolist.metrics;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.example.todolist.exceptions.DataIntegrationViolationException;
+import com.example.todolist.exceptions.NotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every repository call as todolist.repository and counts the 404 and 400 outcomes of the
+ * API as todolist.api.errors. Endpoint latencies are recorded by Micrometer as http.server.requests.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+	static final String REPOSITORY_METRIC = "todolist.repository";
+	static final String ERROR_METRIC = "todolist.api.errors";
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Around("execution(public * org.springframework.data.repository.Repository+.*(..))"
+			+ " || execution(public * com.example.todolist.repository.*Custom.*(..))")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(registry);
+		String exception = "None";
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(REPOSITORY_METRIC)
+					.tag("repository", repositoryName(joinPoint.getThis()))
+					.tag("method", joinPoint.getSignature().getName())
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+	}
+
+	@AfterThrowing(pointcut = "within(com.example.todolist.controller..*)", throwing = "ex")
+	public void countError(JoinPoint joinPoint, RuntimeException ex) {
+		if (ex instanceof NotFoundException || ex instanceof DataIntegrationViolationException) {
+			ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(ex.getClass(), ResponseStatus.class);
+			registry.counter(ERROR_METRIC,
+					"method", joinPoint.getSignature().getName(),
+					"exception", ex.getClass().getSimpleName(),
+					"status", String.valueOf(status.code().value()))
+					.increment();
+		}
+	}
+
+	private static String repositoryName(Object repository) {
+		Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(repository);
+		return interfaces.length > 0 ? interfaces[0].getSimpleName() : repository.getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.todolist.metrics;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the number of SQL statements each request issued as the todolist.sql.statements
+ * summary, tagged like http.server.requests. Must run before any interceptor that queries.
+ * Requests completed asynchronously are not recorded, their statements run on other threads.
+ */
+public class StatementCountInterceptor extends HandlerInterceptorAdapter {
+
+	static final String METRIC = "todolist.sql.statements";
+
+	private final MeterRegistry registry;
+
+	public StatementCountInterceptor(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		StatementCounter.reset();
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getDispatcherType() == DispatcherType.ASYNC) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder(METRIC)
+				.tag("method", request.getMethod())
+				.tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+				.publishPercentileHistogram()
+				.register(registry)
+				.record(StatementCounter.current());
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.todolist.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk entry import with one item per submitted entry, identified by its position
+ */
+public class BulkEntryReport {
+
+	private int created;
+
+	private int rejected;
+
+	private final List<Item> items = new ArrayList<>();
+
+	public void created(int index, Long id) {
+		items.add(new Item(index, id, null));
+		created++;
+	}
+
+	public void rejected(int index, String error) {
+		items.add(new Item(index, null, error));
+		rejected++;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public int getRejected() {
+		return rejected;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	/**
+	 * Result for a single entry, either the id it was stored with or the reason it was rejected
+	 */
+	public static class Item {
+
+		private final int index;
+
+		private final Long id;
+
+		private final String error;
+
+		Item(int index, Long id, String error) {
+			this.index = index;
+			this.id = id;
+			this.error = error;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getError() {
+			return error;
+		}
+	}
+}
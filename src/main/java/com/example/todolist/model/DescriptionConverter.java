@@ -0,0 +1,119 @@
+package com.example.todolist.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores entry descriptions as UTF-8 bytes behind a one byte header. Descriptions of at least
+ * {@link #COMPRESSION_THRESHOLD} bytes are DEFLATE compressed if that makes them smaller, shorter ones
+ * are kept as they are, as compressing them saves little and costs CPU on every read.
+ */
+@Converter
+public class DescriptionConverter implements AttributeConverter<String, byte[]> {
+
+	/**
+	 * Smallest UTF-8 length that is compressed. H2 keeps LOBs up to this size in the row itself.
+	 */
+	public static final int COMPRESSION_THRESHOLD = 256;
+
+	static final byte PLAIN = 0;
+
+	static final byte DEFLATED = 1;
+
+	@Override
+	public byte[] convertToDatabaseColumn(String description) {
+		if (description == null) {
+			return null;
+		}
+		byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length >= COMPRESSION_THRESHOLD) {
+			byte[] compressed = deflate(bytes);
+			if (compressed != null) {
+				return compressed;
+			}
+		}
+		byte[] plain = new byte[bytes.length + 1];
+		plain[0] = PLAIN;
+		System.arraycopy(bytes, 0, plain, 1, bytes.length);
+		return plain;
+	}
+
+	@Override
+	public String convertToEntityAttribute(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		if (data.length == 0) {
+			return "";
+		}
+		switch (data[0]) {
+		case PLAIN:
+			return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+		case DEFLATED:
+			return inflate(data);
+		default:
+			throw new IllegalArgumentException("Unknown description encoding " + data[0]);
+		}
+	}
+
+	/**
+	 * Header, uncompressed length as int and the compressed bytes, or null if that is not smaller than
+	 * the plain form
+	 */
+	private static byte[] deflate(byte[] bytes) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			byte[] buffer = new byte[5 + bytes.length];
+			buffer[0] = DEFLATED;
+			putInt(buffer, 1, bytes.length);
+			int length = 5;
+			while (!deflater.finished() && length < buffer.length) {
+				length += deflater.deflate(buffer, length, buffer.length - length);
+			}
+			return deflater.finished() && length <= bytes.length ? Arrays.copyOf(buffer, length) : null;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static String inflate(byte[] data) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data, 5, data.length - 5);
+			byte[] bytes = new byte[getInt(data, 1)];
+			int length = 0;
+			while (length < bytes.length) {
+				int inflated = inflater.inflate(bytes, length, bytes.length - length);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+					throw new IllegalArgumentException("Truncated compressed description");
+				}
+				length += inflated;
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalArgumentException("Corrupt compressed description", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static void putInt(byte[] buffer, int offset, int value) {
+		buffer[offset] = (byte) (value >>> 24);
+		buffer[offset + 1] = (byte) (value >>> 16);
+		buffer[offset + 2] = (byte) (value >>> 8);
+		buffer[offset + 3] = (byte) value;
+	}
+
+	private static int getInt(byte[] buffer, int offset) {
+		return (buffer[offset] & 0xFF) << 24 | (buffer[offset + 1] & 0xFF) << 16 | (buffer[offset + 2] & 0xFF) << 8
+				| buffer[offset + 3] & 0xFF;
+	}
+}
@@ -1,27 +1,41 @@
 package com.example.todolist.model;
 
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.GenericGenerator;
+
+import com.example.todolist.id.SnowflakeIdentifierGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
- * To-Do entry with id, list it is assigned to and up to 16k long description
+ * To-Do entry with id, list it is assigned to and up to 16k long description. The description is
+ * stored as a LOB, compressed when long, with a short preview and its length in their own columns for
+ * {@link ToDoEntrySummary}.
  */
 @Entity
 @Table(name = "entries")
 public class ToDoEntry {
 
+	/**
+	 * Longest description an entry may have
+	 */
+	public static final int MAX_DESCRIPTION_LENGTH = 16000;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(generator = "entries_id")
+	@GenericGenerator(name = "entries_id", strategy = SnowflakeIdentifierGenerator.STRATEGY)
 	private Long id;
 
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -30,9 +44,19 @@ public class ToDoEntry {
 	private ToDoList list;
 
 	@NotNull
-	@Size(max = 16000, message = "Exceed limit lenght")
+	@Size(max = MAX_DESCRIPTION_LENGTH, message = "Exceed limit lenght")
+	// a LOB column declared directly, Hibernate rejects @Lob together with a converter
+	@Column(columnDefinition = "blob")
+	@Convert(converter = DescriptionConverter.class)
 	private String description;
 
+	@JsonIgnore
+	@Column(length = ToDoEntrySummary.PREVIEW_LENGTH)
+	private String preview;
+
+	@JsonIgnore
+	private int descriptionLength;
+
 	public Long getId() {
 		return id;
 	}
@@ -56,4 +80,14 @@ public class ToDoEntry {
 	public void setId(Long id) {
 		this.id = id;
 	}
+
+	/**
+	 * Keeps preview and length in line with the description
+	 */
+	@PrePersist
+	@PreUpdate
+	void updatePreview() {
+		preview = ToDoEntrySummary.preview(description);
+		descriptionLength = description == null ? 0 : description.length();
+	}
 }
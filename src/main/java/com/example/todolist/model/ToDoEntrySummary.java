@@ -0,0 +1,63 @@
+package com.example.todolist.model;
+
+/**
+ * Read-only view of a to-do entry with its id and the first characters of its description. The full
+ * description is fetched on demand.
+ */
+public class ToDoEntrySummary {
+
+	/**
+	 * Longest preview in characters
+	 */
+	public static final int PREVIEW_LENGTH = 100;
+
+	private final Long id;
+
+	private final String preview;
+
+	private final int length;
+
+	public ToDoEntrySummary(Long id, String preview, int length) {
+		this.id = id;
+		this.preview = preview;
+		this.length = length;
+	}
+
+	/**
+	 * Summary of the given entry, computed from its description
+	 */
+	public static ToDoEntrySummary of(ToDoEntry entry) {
+		String description = entry.getDescription();
+		return new ToDoEntrySummary(entry.getId(), preview(description), description == null ? 0 : description.length());
+	}
+
+	/**
+	 * First {@link #PREVIEW_LENGTH} characters of the description, never ending in half a surrogate pair
+	 */
+	public static String preview(String description) {
+		if (description == null || description.length() <= PREVIEW_LENGTH) {
+			return description;
+		}
+		int end = Character.isHighSurrogate(description.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+		return description.substring(0, end);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getPreview() {
+		return preview;
+	}
+
+	/**
+	 * Length of the full description in characters
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	public boolean isTruncated() {
+		return preview != null && preview.length() < length;
+	}
+}
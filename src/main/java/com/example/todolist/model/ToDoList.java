@@ -8,28 +8,58 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import com.example.todolist.id.SnowflakeIdentifierGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+
 /**
  * To-Do list with name (up to 255 chars) and a set of entries
  */
 @Entity
 @Table(name = "lists")
+@NamedEntityGraph(name = ToDoList.WITH_ENTRIES, attributeNodes = @NamedAttributeNode("entries"))
 public class ToDoList {
 
+    /**
+     * Entity graph fetching the list together with its entries
+     */
+    public static final String WITH_ENTRIES = "ToDoList.entries";
+
+    /**
+     * Created by the server, an id sent by a client is ignored
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "lists_id")
+    @GenericGenerator(name = "lists_id", strategy = SnowflakeIdentifierGenerator.STRATEGY,
+            parameters = @Parameter(name = SnowflakeIdentifierGenerator.KEEP_ASSIGNED, value = "true"))
+    @JsonProperty(access = Access.READ_ONLY)
     private Long id;
 
     @NotNull
     @Column(unique = true)
     private String name;
 
+    /**
+     * Increased whenever an entry is added to or removed from the list
+     */
+    @JsonIgnore
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "list")
+    @BatchSize(size = 100)
     private Set<ToDoEntry> entries = new HashSet<>();
 
     public Long getId() {
@@ -44,6 +74,14 @@ public class ToDoList {
         this.name = name;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Set<ToDoEntry> getEntries() {
         return entries;
     }
@@ -0,0 +1,31 @@
+package com.example.todolist.model;
+
+/**
+ * Read-only view of a to-do list with its id, name and number of entries
+ */
+public class ToDoListSummary {
+
+	private final Long id;
+
+	private final String name;
+
+	private final long entryCount;
+
+	public ToDoListSummary(Long id, String name, long entryCount) {
+		this.id = id;
+		this.name = name;
+		this.entryCount = entryCount;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getEntryCount() {
+		return entryCount;
+	}
+}
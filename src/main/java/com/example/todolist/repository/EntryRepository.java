@@ -1,12 +1,75 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.config.CacheConfig;
 import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoEntrySummary;
 import java.util.Collection;
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface EntryRepository extends JpaRepository<ToDoEntry, Long> {
+public interface EntryRepository extends PagingAndSortingRepository<ToDoEntry, Long>, EntryRepositoryCustom {
 
+    /**
+     * Number of rows the JDBC driver fetches per round trip while streaming entries
+     */
+    String STREAM_FETCH_SIZE = "256";
+
+    @Cacheable(CacheConfig.LIST_ENTRIES)
     Collection<ToDoEntry> findAllByListId(Long listId);
+
+    /**
+     * Entry with the given id if it belongs to the given list, null otherwise
+     */
+    ToDoEntry findByIdAndListId(Long id, Long listId);
+
+    /**
+     * Id, preview and description length of the entries of the given list, read without touching
+     * the descriptions
+     */
+    @Query("select new com.example.todolist.model.ToDoEntrySummary(e.id, e.preview, e.descriptionLength)"
+            + " from ToDoEntry e where e.list.id = :listId")
+    List<ToDoEntrySummary> findSummariesByListId(@Param("listId") Long listId);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.LIST_ENTRIES, key = "#p0.list.id")
+    <S extends ToDoEntry> S save(S entry);
+
+    @CacheEvict(cacheNames = CacheConfig.LIST_ENTRIES, allEntries = true)
+    void deleteAllInBatch();
+
+    /**
+     * Entries of the given list read through a database cursor. Must be consumed and closed
+     * inside a transaction.
+     */
+    @Query("select e from ToDoEntry e where e.list.id = :listId")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<ToDoEntry> streamAllByListId(@Param("listId") Long listId);
+
+    /**
+     * Deletes all entries of the given list with a single statement, without loading them.
+     * Returns the number of deleted entries.
+     */
+    @Modifying
+    @Query("delete from ToDoEntry e where e.list.id = :listId")
+    @CacheEvict(cacheNames = CacheConfig.LIST_ENTRIES, key = "#p0")
+    int bulkDeleteByListId(@Param("listId") Long listId);
+
+    /**
+     * Deletes the entry with the given id if it belongs to the given list, with a single statement.
+     * Returns 1 if the entry was deleted, 0 if there is no such entry in that list.
+     */
+    @Modifying
+    @Query("delete from ToDoEntry e where e.id = :entryId and e.list.id = :listId")
+    @CacheEvict(cacheNames = CacheConfig.LIST_ENTRIES, key = "#p1")
+    int bulkDeleteByIdAndListId(@Param("entryId") Long entryId, @Param("listId") Long listId);
 }
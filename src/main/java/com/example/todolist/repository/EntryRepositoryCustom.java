@@ -0,0 +1,25 @@
+package com.example.todolist.repository;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import com.example.todolist.config.CacheConfig;
+import com.example.todolist.model.ToDoEntry;
+
+/**
+ * Entry operations that are not expressible as Spring Data query methods
+ */
+public interface EntryRepositoryCustom {
+
+    /**
+     * Number of inserts sent to the database in one JDBC batch
+     */
+    int BATCH_SIZE = 50;
+
+    /**
+     * Inserts the given entries into the list with the given id using JDBC batching. The list is
+     * not loaded and its existence is not checked. Entries receive their ids and are detached
+     * afterwards, together with everything else in the current persistence context.
+     */
+    @CacheEvict(cacheNames = CacheConfig.LIST_ENTRIES, key = "#p0")
+    void insertAll(Long listId, Iterable<ToDoEntry> entries);
+}
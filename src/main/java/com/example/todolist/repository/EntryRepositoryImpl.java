@@ -0,0 +1,37 @@
+package com.example.todolist.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+
+public class EntryRepositoryImpl implements EntryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insertAll(Long listId, Iterable<ToDoEntry> entries) {
+        ToDoList list = entityManager.getReference(ToDoList.class, listId);
+        int pending = 0;
+        for (ToDoEntry entry : entries) {
+            entry.setList(list);
+            entityManager.persist(entry);
+            if (++pending == BATCH_SIZE) {
+                flushBatch();
+                list = entityManager.getReference(ToDoList.class, listId);
+                pending = 0;
+            }
+        }
+        flushBatch();
+    }
+
+    private void flushBatch() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
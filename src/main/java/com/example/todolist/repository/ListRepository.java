@@ -1,10 +1,90 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.config.CacheConfig;
 import com.example.todolist.model.ToDoList;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.example.todolist.model.ToDoListSummary;
+import java.util.List;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ListRepository extends JpaRepository<ToDoList, Long> {
+public interface ListRepository extends PagingAndSortingRepository<ToDoList, Long>, ListRepositoryCustom {
 
+    @Override
+    @Cacheable(CacheConfig.LIST_EXISTS)
+    boolean exists(Long id);
+
+    /**
+     * Saves the list, evicting anything cached for its id, e.g. a negative existence check
+     */
+    @Override
+    @CacheEvict(cacheNames = { CacheConfig.LIST_EXISTS, CacheConfig.LIST_ENTRIES, CacheConfig.LIST_VERSION },
+            key = "#result.id")
+    <S extends ToDoList> S save(S list);
+
+    @CacheEvict(cacheNames = { CacheConfig.LIST_EXISTS, CacheConfig.LIST_ENTRIES, CacheConfig.LIST_VERSION },
+            allEntries = true)
+    void deleteAllInBatch();
+
+    /**
+     * Reference to the list with the given id, loaded on first access
+     */
+    ToDoList getOne(Long id);
+
+    /**
+     * All lists with their entries, loaded with a single query
+     */
+    @EntityGraph(ToDoList.WITH_ENTRIES)
+    @Query("select distinct l from ToDoList l")
+    List<ToDoList> findAllWithEntries();
+
+    /**
+     * List with the given id and its entries, loaded with a single query, or null if not found
+     */
+    @EntityGraph(ToDoList.WITH_ENTRIES)
+    @Query("select l from ToDoList l where l.id = :id")
+    ToDoList findOneWithEntries(@Param("id") Long id);
+
+    /**
+     * Keyset page of list summaries with id greater than {@code after}, ordered by id.
+     * Entry counts are computed by the database, the entries themselves are never loaded.
+     */
+    @Query("select new com.example.todolist.model.ToDoListSummary(l.id, l.name, "
+            + "(select count(e) from ToDoEntry e where e.list = l)) "
+            + "from ToDoList l where l.id > :after order by l.id")
+    List<ToDoListSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Version of the list with the given id, or null if not found. Cached, so conditional and repeated
+     * reads of a list do not reach the database; a version read before a write commits is not cached
+     * after the write evicts it.
+     */
+    @Query("select l.version from ToDoList l where l.id = :id")
+    @Cacheable(CacheConfig.LIST_VERSION)
+    Long findVersionById(@Param("id") Long id);
+
+    /**
+     * Increases the version of the list with the given id by one, with a single statement
+     */
+    @Modifying
+    @Query("update ToDoList l set l.version = l.version + 1 where l.id = :id")
+    @CacheEvict(cacheNames = CacheConfig.LIST_VERSION, key = "#p0")
+    int incrementVersion(@Param("id") Long id);
+
+    /**
+     * Deletes the list with the given id with a single statement, without cascading to its
+     * entries. Returns the number of deleted lists.
+     */
+    @Modifying
+    @Query("delete from ToDoList l where l.id = :id")
+    @CacheEvict(cacheNames = { CacheConfig.LIST_EXISTS, CacheConfig.LIST_ENTRIES, CacheConfig.LIST_VERSION },
+            key = "#p0")
+    int bulkDeleteById(@Param("id") Long id);
 }
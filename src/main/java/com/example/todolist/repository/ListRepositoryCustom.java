@@ -0,0 +1,21 @@
+package com.example.todolist.repository;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import com.example.todolist.config.CacheConfig;
+import com.example.todolist.model.ToDoList;
+
+/**
+ * List operations that are not expressible as Spring Data query methods
+ */
+public interface ListRepositoryCustom {
+
+    /**
+     * Inserts the new list and its entries and returns it. A list id assigned up front is kept, without
+     * the existence check {@code save} makes for lists that already have an id. The inserts are flushed
+     * right away, a taken name throws a DataIntegrityViolationException from here.
+     */
+    @CacheEvict(cacheNames = { CacheConfig.LIST_EXISTS, CacheConfig.LIST_ENTRIES, CacheConfig.LIST_VERSION },
+            key = "#result.id")
+    ToDoList insert(ToDoList list);
+}
@@ -0,0 +1,26 @@
+package com.example.todolist.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todolist.model.ToDoList;
+
+public class ListRepositoryImpl implements ListRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public ToDoList insert(ToDoList list) {
+        // unlike persist, Hibernate's save takes a new entity that already has an id
+        Session session = entityManager.unwrap(Session.class);
+        session.save(list);
+        // a taken name fails here instead of on commit, after the caller could handle it
+        session.flush();
+        return list;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.todolist.repository.store;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.PagingAndSortingRepository;
+
+/**
+ * {@link PagingAndSortingRepository} operations derived from a few primitives, for repositories backed by
+ * a {@link ToDoStore}
+ */
+public abstract class AbstractStoreRepository<T> implements PagingAndSortingRepository<T, Long> {
+
+	protected abstract Long getId(T entity);
+
+	@Override
+	public abstract List<T> findAll();
+
+	@Override
+	public boolean exists(Long id) {
+		return findOne(id) != null;
+	}
+
+	public T getOne(Long id) {
+		T entity = findOne(id);
+		if (entity == null) {
+			throw new EntityNotFoundException("No entity with id " + id);
+		}
+		return entity;
+	}
+
+	@Override
+	public List<T> findAll(Iterable<Long> ids) {
+		List<T> result = new ArrayList<>();
+		for (Long id : ids) {
+			T entity = findOne(id);
+			if (entity != null) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<T> findAll(Sort sort) {
+		List<T> result = findAll();
+		if (sort != null) {
+			Comparator<T> comparator = null;
+			for (Sort.Order order : sort) {
+				Comparator<T> next = new PropertyComparator<>(order.getProperty(), order.isIgnoreCase(),
+						order.isAscending());
+				comparator = comparator == null ? next : comparator.thenComparing(next);
+			}
+			if (comparator != null) {
+				result.sort(comparator);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Page<T> findAll(Pageable pageable) {
+		if (pageable == null) {
+			return new PageImpl<>(findAll());
+		}
+		List<T> all = findAll(pageable.getSort());
+		int from = Math.min(pageable.getOffset(), all.size());
+		int to = Math.min(from + pageable.getPageSize(), all.size());
+		return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+	}
+
+	@Override
+	public <S extends T> List<S> save(Iterable<S> entities) {
+		List<S> result = new ArrayList<>();
+		for (S entity : entities) {
+			result.add(save(entity));
+		}
+		return result;
+	}
+
+	@Override
+	public void delete(T entity) {
+		delete(getId(entity));
+	}
+
+	@Override
+	public void delete(Iterable<? extends T> entities) {
+		for (T entity : entities) {
+			delete(entity);
+		}
+	}
+
+	@Override
+	public void deleteAll() {
+		deleteAllInBatch();
+	}
+
+	public abstract void deleteAllInBatch();
+}
@@ -0,0 +1,152 @@
+package com.example.todolist.repository.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of checksummed records, accessed through a memory mapping. Each record is its
+ * length, the CRC32 of type and payload, a type byte and the payload. The mapping grows by doubling,
+ * up to 2 GiB. Not thread safe.
+ */
+final class LogFile implements Closeable {
+
+	static final int HEADER_SIZE = 8;
+
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private final FileChannel channel;
+
+	private MappedByteBuffer buffer;
+
+	private int position;
+
+	private LogFile(FileChannel channel, MappedByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+
+	static LogFile open(Path path, int initialCapacity) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		long capacity = Math.max(channel.size(), initialCapacity);
+		if (capacity > MAX_CAPACITY) {
+			channel.close();
+			throw new IOException("Log file larger than 2 GiB: " + path);
+		}
+		return new LogFile(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+	}
+
+	/**
+	 * Hands every intact record to the visitor, in order. Stops at the first record that is incomplete or
+	 * fails its checksum, e.g. one torn by a crash, and clears everything from there on. New records are
+	 * appended at that point.
+	 */
+	void replay(RecordVisitor visitor) {
+		int offset = 0;
+		CRC32 crc = new CRC32();
+		while (offset <= buffer.capacity() - HEADER_SIZE) {
+			int length = buffer.getInt(offset);
+			if (length <= 0 || length > buffer.capacity() - offset - HEADER_SIZE) {
+				break;
+			}
+			ByteBuffer body = slice(offset + HEADER_SIZE, length);
+			crc.reset();
+			crc.update(body.duplicate());
+			if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+				break;
+			}
+			byte type = body.get();
+			visitor.visit(type, body.slice(), offset, HEADER_SIZE + length);
+			offset += HEADER_SIZE + length;
+		}
+		position = offset;
+		byte[] zeros = new byte[8192];
+		ByteBuffer tail = buffer.duplicate();
+		tail.position(offset);
+		while (tail.hasRemaining()) {
+			tail.put(zeros, 0, Math.min(zeros.length, tail.remaining()));
+		}
+	}
+
+	/**
+	 * Appends a record and returns its offset
+	 */
+	int append(byte type, ByteBuffer payload) throws IOException {
+		int length = 1 + payload.remaining();
+		if (length > MAX_CAPACITY - HEADER_SIZE - position) {
+			throw new IOException("Log file is full");
+		}
+		ensureCapacity(position + HEADER_SIZE + length);
+		int offset = position;
+		ByteBuffer body = slice(offset + HEADER_SIZE, length);
+		body.put(type);
+		body.put(payload.duplicate());
+		body.flip();
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		buffer.putInt(offset + 4, (int) crc.getValue());
+		// length last, a record is not readable before it is complete
+		buffer.putInt(offset, length);
+		position += HEADER_SIZE + length;
+		return offset;
+	}
+
+	byte type(int offset) {
+		return buffer.get(offset + HEADER_SIZE);
+	}
+
+	/**
+	 * Payload of the record at the given offset
+	 */
+	ByteBuffer payload(int offset) {
+		return slice(offset + HEADER_SIZE + 1, buffer.getInt(offset) - 1);
+	}
+
+	/**
+	 * Bytes in use, records included
+	 */
+	int size() {
+		return position;
+	}
+
+	void force() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.truncate(position);
+		channel.close();
+	}
+
+	private ByteBuffer slice(int offset, int length) {
+		ByteBuffer slice = buffer.duplicate();
+		slice.limit(offset + length).position(offset);
+		return slice.slice();
+	}
+
+	private void ensureCapacity(int required) throws IOException {
+		if (required <= buffer.capacity()) {
+			return;
+		}
+		int capacity = (int) Math.min(Math.max(required, 2L * buffer.capacity()), MAX_CAPACITY);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+	}
+
+	interface RecordVisitor {
+
+		void visit(byte type, ByteBuffer payload, int offset, int size);
+	}
+}
@@ -0,0 +1,695 @@
+package com.example.todolist.repository.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+
+/**
+ * {@link ToDoStore} writing every change as a record to an append-only {@link LogFile}. Lists are
+ * indexed in memory with their name and version, entries with the offset of their latest record, so
+ * descriptions are read from the mapped file. The indexes are rebuilt by replaying the log on startup.
+ * <p>
+ * Superseded records are garbage. Compaction copies the live records to a new file and replaces the
+ * log with it once garbage exceeds the configured share. Writes are visible right away and reach the
+ * disk at the next sync; they are not transactional.
+ */
+public class LogStore implements ToDoStore, Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LogStore.class);
+
+	static final byte LIST = 1;
+	static final byte LIST_DELETE = 2;
+	static final byte ENTRY = 3;
+	static final byte ENTRY_DELETE = 4;
+	static final byte ENTRIES_DELETE = 5;
+	static final byte CLEAR = 6;
+	static final byte SEQUENCES = 7;
+
+	private final Path path;
+	private final int initialCapacity;
+	private final double compactionGarbageRatio;
+	private final int compactionMinSize;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private LogFile log;
+	private final TreeMap<Long, ListState> lists = new TreeMap<>();
+	private final Map<String, Long> listIdsByName = new HashMap<>();
+	private final Map<Long, EntryState> entries = new HashMap<>();
+	private long nextListId = 1;
+	private long nextEntryId = 1;
+	private long liveBytes;
+
+	private ScheduledExecutorService maintenance;
+
+	/**
+	 * Opens the log at the given path, creating it if needed, and rebuilds the indexes from it
+	 */
+	public LogStore(Path path, int initialCapacity, double compactionGarbageRatio, int compactionMinSize) {
+		this.path = path;
+		this.initialCapacity = initialCapacity;
+		this.compactionGarbageRatio = compactionGarbageRatio;
+		this.compactionMinSize = compactionMinSize;
+		try {
+			log = LogFile.open(path, initialCapacity);
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not open log " + path, e);
+		}
+		log.replay(this::apply);
+	}
+
+	/**
+	 * Syncs the log to disk and checks whether it needs compaction at the given intervals
+	 */
+	public void scheduleMaintenance(long syncIntervalMs, long compactionIntervalMs) {
+		maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "log-store-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenance.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+		maintenance.scheduleWithFixedDelay(() -> {
+			try {
+				compactIfNeeded();
+			} catch (RuntimeException e) {
+				LOG.error("Log compaction failed", e);
+			}
+		}, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public ToDoList findList(Long id, boolean withEntries) {
+		lock.readLock().lock();
+		try {
+			ListState state = lists.get(id);
+			return state == null ? null : toList(id, state, withEntries);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<ToDoList> findLists(boolean withEntries) {
+		lock.readLock().lock();
+		try {
+			List<ToDoList> result = new ArrayList<>(lists.size());
+			lists.forEach((id, state) -> result.add(toList(id, state, withEntries)));
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<ToDoListSummary> findSummariesAfter(Long after, int limit) {
+		lock.readLock().lock();
+		try {
+			List<ToDoListSummary> result = new ArrayList<>(Math.min(limit, lists.size()));
+			for (Map.Entry<Long, ListState> list : lists.tailMap(after == null ? Long.MIN_VALUE : after, false)
+					.entrySet()) {
+				if (result.size() == limit) {
+					break;
+				}
+				ListState state = list.getValue();
+				result.add(new ToDoListSummary(list.getKey(), state.name, state.entryIds.size()));
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Long findListVersion(Long id) {
+		lock.readLock().lock();
+		try {
+			ListState state = lists.get(id);
+			return state == null ? null : state.version;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean existsList(Long id) {
+		lock.readLock().lock();
+		try {
+			return lists.containsKey(id);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public long countLists() {
+		lock.readLock().lock();
+		try {
+			return lists.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public ToDoList saveList(ToDoList list) {
+		lock.writeLock().lock();
+		try {
+			Long id = list.getId() != null && lists.containsKey(list.getId()) ? list.getId() : nextListId;
+			Long owner = listIdsByName.get(list.getName());
+			if (list.getName() == null || owner != null && !owner.equals(id)) {
+				throw new DataIntegrityViolationException("List name missing or already taken: " + list.getName());
+			}
+			write(LIST, listRecord(id, list.getVersion(), list.getName()));
+			list.setId(id);
+			if (!list.getEntries().isEmpty()) {
+				saveEntriesLocked(id, list.getEntries());
+			}
+			return list;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean incrementListVersion(Long id) {
+		lock.writeLock().lock();
+		try {
+			ListState state = lists.get(id);
+			if (state == null) {
+				return false;
+			}
+			write(LIST, listRecord(id, state.version + 1, state.name));
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteList(Long id) {
+		lock.writeLock().lock();
+		try {
+			if (!lists.containsKey(id)) {
+				return false;
+			}
+			write(LIST_DELETE, idRecord(id));
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteAll() {
+		lock.writeLock().lock();
+		try {
+			write(CLEAR, ByteBuffer.allocate(0));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public ToDoEntry findEntry(Long id) {
+		lock.readLock().lock();
+		try {
+			EntryState state = entries.get(id);
+			return state == null ? null : toEntry(id, state, listReference(state.listId));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean existsEntry(Long id) {
+		lock.readLock().lock();
+		try {
+			return entries.containsKey(id);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<ToDoEntry> findEntries(Long listId) {
+		lock.readLock().lock();
+		try {
+			ListState list = lists.get(listId);
+			if (list == null) {
+				return new ArrayList<>();
+			}
+			ToDoList reference = listReference(listId);
+			List<ToDoEntry> result = new ArrayList<>(list.entryIds.size());
+			for (Long id : list.entryIds) {
+				result.add(toEntry(id, entries.get(id), reference));
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Stream<ToDoEntry> streamEntries(Long listId) {
+		long[] ids;
+		lock.readLock().lock();
+		try {
+			ListState list = lists.get(listId);
+			ids = list == null ? new long[0] : list.entryIds.stream().mapToLong(Long::longValue).toArray();
+		} finally {
+			lock.readLock().unlock();
+		}
+		// entries deleted while the stream is consumed are skipped
+		return Arrays.stream(ids).mapToObj(this::findEntry).filter(Objects::nonNull);
+	}
+
+	@Override
+	public List<ToDoEntry> findAllEntries() {
+		lock.readLock().lock();
+		try {
+			List<ToDoEntry> result = new ArrayList<>(entries.size());
+			entries.forEach((id, state) -> result.add(toEntry(id, state, listReference(state.listId))));
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public long countEntries() {
+		lock.readLock().lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void saveEntries(Long listId, Iterable<ToDoEntry> newEntries) {
+		lock.writeLock().lock();
+		try {
+			saveEntriesLocked(listId, newEntries);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int deleteEntry(Long id, Long listId) {
+		lock.writeLock().lock();
+		try {
+			EntryState state = entries.get(id);
+			if (state == null || listId != null && state.listId != listId) {
+				return 0;
+			}
+			write(ENTRY_DELETE, idRecord(id));
+			return 1;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int deleteEntries(Long listId) {
+		lock.writeLock().lock();
+		try {
+			ListState list = lists.get(listId);
+			if (list == null || list.entryIds.isEmpty()) {
+				return 0;
+			}
+			int deleted = list.entryIds.size();
+			write(ENTRIES_DELETE, idRecord(listId));
+			return deleted;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteAllEntries() {
+		lock.writeLock().lock();
+		try {
+			for (Map.Entry<Long, ListState> list : lists.entrySet()) {
+				if (!list.getValue().entryIds.isEmpty()) {
+					write(ENTRIES_DELETE, idRecord(list.getKey()));
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Bytes of the log taken by records that are not superseded
+	 */
+	long liveBytes() {
+		lock.readLock().lock();
+		try {
+			return liveBytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	long size() {
+		lock.readLock().lock();
+		try {
+			return log.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void sync() {
+		lock.readLock().lock();
+		try {
+			log.force();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Compacts the log if garbage takes at least the configured share of it
+	 */
+	public boolean compactIfNeeded() {
+		lock.writeLock().lock();
+		try {
+			int size = log.size();
+			if (size < compactionMinSize || size - liveBytes < compactionGarbageRatio * size) {
+				return false;
+			}
+			compact();
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes the live records to a new file and atomically replaces the log with it. Reads and writes
+	 * wait until it is done.
+	 */
+	public void compact() {
+		lock.writeLock().lock();
+		try {
+			int before = log.size();
+			Path target = path.resolveSibling(path.getFileName() + ".compact");
+			Files.deleteIfExists(target);
+			LogFile compacted = LogFile.open(target, (int) Math.min(Math.max(initialCapacity, liveBytes + 64),
+					Integer.MAX_VALUE - 8));
+			Map<Long, Integer> listOffsets = new HashMap<>();
+			Map<Long, Integer> entryOffsets = new HashMap<>();
+			try {
+				// keeps ids of deleted lists and entries from being handed out again
+				ByteBuffer sequences = ByteBuffer.allocate(16).putLong(nextListId).putLong(nextEntryId);
+				sequences.flip();
+				compacted.append(SEQUENCES, sequences);
+				for (Map.Entry<Long, ListState> list : lists.entrySet()) {
+					listOffsets.put(list.getKey(), copy(list.getValue().offset, compacted));
+					for (Long entryId : list.getValue().entryIds) {
+						entryOffsets.put(entryId, copy(entries.get(entryId).offset, compacted));
+					}
+				}
+				compacted.force();
+				Files.move(target, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException | RuntimeException e) {
+				compacted.close();
+				Files.deleteIfExists(target);
+				throw e;
+			}
+			log.close();
+			log = compacted;
+			listOffsets.forEach((id, offset) -> lists.get(id).offset = offset);
+			entryOffsets.forEach((id, offset) -> entries.get(id).offset = offset);
+			liveBytes = compacted.size();
+			LOG.info("Compacted log {} from {} to {} bytes", path, before, compacted.size());
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not compact log " + path, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (maintenance != null) {
+			maintenance.shutdown();
+		}
+		lock.writeLock().lock();
+		try {
+			log.close();
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not close log " + path, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private int copy(int offset, LogFile target) throws IOException {
+		return target.append(log.type(offset), log.payload(offset));
+	}
+
+	private void saveEntriesLocked(Long listId, Iterable<ToDoEntry> newEntries) {
+		if (listId == null || !lists.containsKey(listId)) {
+			throw new DataIntegrityViolationException("No list with id " + listId);
+		}
+		ToDoList reference = null;
+		for (ToDoEntry entry : newEntries) {
+			Long id = entry.getId() != null && entries.containsKey(entry.getId()) ? entry.getId() : nextEntryId;
+			byte[] description = bytes(entry.getDescription());
+			ByteBuffer record = ByteBuffer.allocate(20 + (description == null ? 0 : description.length));
+			record.putLong(id).putLong(listId);
+			putBytes(record, description);
+			record.flip();
+			write(ENTRY, record);
+			entry.setId(id);
+			if (entry.getList() == null) {
+				reference = reference == null ? listReference(listId) : reference;
+				entry.setList(reference);
+			}
+		}
+	}
+
+	/**
+	 * Appends the record and applies it to the indexes, exactly as a replay would
+	 */
+	private void write(byte type, ByteBuffer payload) {
+		try {
+			int offset = log.append(type, payload);
+			apply(type, log.payload(offset), offset, log.size() - offset);
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not append to log " + path, e);
+		}
+	}
+
+	private void apply(byte type, ByteBuffer payload, int offset, int size) {
+		switch (type) {
+		case LIST: {
+			long id = payload.getLong();
+			ListState state = lists.get(id);
+			if (state == null) {
+				state = new ListState();
+				lists.put(id, state);
+			} else {
+				liveBytes -= state.size;
+				listIdsByName.remove(state.name);
+			}
+			state.version = payload.getLong();
+			state.name = string(payload);
+			state.offset = offset;
+			state.size = size;
+			listIdsByName.put(state.name, id);
+			liveBytes += size;
+			nextListId = Math.max(nextListId, id + 1);
+			break;
+		}
+		case LIST_DELETE: {
+			long id = payload.getLong();
+			removeEntries(id);
+			ListState state = lists.remove(id);
+			if (state != null) {
+				listIdsByName.remove(state.name);
+				liveBytes -= state.size;
+			}
+			break;
+		}
+		case ENTRY: {
+			long id = payload.getLong();
+			long listId = payload.getLong();
+			ListState list = lists.get(listId);
+			if (list == null) {
+				// written for a list deleted before, never happens through this class
+				break;
+			}
+			EntryState state = entries.get(id);
+			if (state == null) {
+				state = new EntryState();
+				entries.put(id, state);
+			} else {
+				liveBytes -= state.size;
+				lists.get(state.listId).entryIds.remove(id);
+			}
+			state.listId = listId;
+			state.offset = offset;
+			state.size = size;
+			list.entryIds.add(id);
+			liveBytes += size;
+			nextEntryId = Math.max(nextEntryId, id + 1);
+			break;
+		}
+		case ENTRY_DELETE: {
+			long id = payload.getLong();
+			EntryState state = entries.remove(id);
+			if (state != null) {
+				lists.get(state.listId).entryIds.remove(id);
+				liveBytes -= state.size;
+			}
+			break;
+		}
+		case ENTRIES_DELETE:
+			removeEntries(payload.getLong());
+			break;
+		case CLEAR:
+			lists.clear();
+			listIdsByName.clear();
+			entries.clear();
+			liveBytes = 0;
+			break;
+		case SEQUENCES:
+			nextListId = Math.max(nextListId, payload.getLong());
+			nextEntryId = Math.max(nextEntryId, payload.getLong());
+			liveBytes += size;
+			break;
+		default:
+			throw new IllegalStateException("Unknown record type " + type + " at offset " + offset + " of " + path);
+		}
+	}
+
+	private void removeEntries(long listId) {
+		ListState list = lists.get(listId);
+		if (list == null) {
+			return;
+		}
+		for (Long id : list.entryIds) {
+			liveBytes -= entries.remove(id).size;
+		}
+		list.entryIds.clear();
+	}
+
+	private ToDoList toList(Long id, ListState state, boolean withEntries) {
+		ToDoList list = listReference(id);
+		list.setName(state.name);
+		list.setVersion(state.version);
+		if (withEntries) {
+			for (Long entryId : state.entryIds) {
+				list.addEntry(toEntry(entryId, entries.get(entryId), list));
+			}
+		}
+		return list;
+	}
+
+	private ToDoEntry toEntry(Long id, EntryState state, ToDoList list) {
+		ByteBuffer payload = log.payload(state.offset);
+		payload.position(16);
+		ToDoEntry entry = new ToDoEntry();
+		entry.setId(id);
+		entry.setList(list);
+		entry.setDescription(string(payload));
+		return entry;
+	}
+
+	private static ToDoList listReference(Long id) {
+		ToDoList list = new ToDoList();
+		list.setId(id);
+		return list;
+	}
+
+	private static ByteBuffer idRecord(long id) {
+		ByteBuffer record = ByteBuffer.allocate(8).putLong(id);
+		record.flip();
+		return record;
+	}
+
+	private static ByteBuffer listRecord(long id, long version, String name) {
+		byte[] bytes = bytes(name);
+		ByteBuffer record = ByteBuffer.allocate(20 + (bytes == null ? 0 : bytes.length));
+		record.putLong(id).putLong(version);
+		putBytes(record, bytes);
+		record.flip();
+		return record;
+	}
+
+	private static byte[] bytes(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void putBytes(ByteBuffer record, byte[] bytes) {
+		if (bytes == null) {
+			record.putInt(-1);
+		} else {
+			record.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	private static String string(ByteBuffer payload) {
+		int length = payload.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		payload.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static class ListState {
+
+		int offset;
+
+		int size;
+
+		String name;
+
+		long version;
+
+		final Set<Long> entryIds = new LinkedHashSet<>();
+	}
+
+	static class EntryState {
+
+		int offset;
+
+		int size;
+
+		long listId;
+	}
+}
@@ -0,0 +1,597 @@
+package com.example.todolist.repository.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+import com.example.todolist.util.LongObjectHashMap;
+
+/**
+ * {@link ToDoStore} keeping lists and entries in memory only, for deployments that need no durability.
+ * Lists are spread over lock stripes by id, each stripe holding its lists in a {@link LongObjectHashMap}
+ * behind its own read-write lock, so requests for lists of different stripes never wait for each other.
+ * A list keeps the ids and descriptions of its entries in two parallel arrays, and the slot of each
+ * entry id in a map of its own. A second set of stripes maps entry ids to their list for lookups by
+ * entry id.
+ * <p>
+ * A list stripe is always locked before an entry stripe, never the other way round. Reads spanning
+ * several lists are not a consistent snapshot of all of them.
+ */
+public class MemoryStore implements ToDoStore {
+
+	private final Stripe[] lists;
+
+	private final Stripe[] entries;
+
+	private final ConcurrentMap<String, Long> listIdsByName = new ConcurrentHashMap<>();
+
+	private final AtomicLong nextListId = new AtomicLong(1);
+
+	private final AtomicLong nextEntryId = new AtomicLong(1);
+
+	/**
+	 * Store with the given number of lock stripes, rounded up to a power of two
+	 */
+	public MemoryStore(int stripes) {
+		int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		lists = new Stripe[size];
+		entries = new Stripe[size];
+		for (int i = 0; i < size; i++) {
+			lists[i] = new Stripe();
+			entries[i] = new Stripe();
+		}
+	}
+
+	@Override
+	public ToDoList findList(Long id, boolean withEntries) {
+		if (id == null) {
+			return null;
+		}
+		Stripe stripe = stripe(lists, id);
+		stripe.lock.readLock().lock();
+		try {
+			ListState state = stripe.map.get(id);
+			return state == null ? null : state.toList(withEntries);
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<ToDoList> findLists(boolean withEntries) {
+		List<ToDoList> result = new ArrayList<>();
+		for (Stripe stripe : lists) {
+			stripe.lock.readLock().lock();
+			try {
+				stripe.map.forEach((id, state) -> result.add(state.toList(withEntries)));
+			} finally {
+				stripe.lock.readLock().unlock();
+			}
+		}
+		result.sort(Comparator.comparing(ToDoList::getId));
+		return result;
+	}
+
+	@Override
+	public List<ToDoListSummary> findSummariesAfter(Long after, int limit) {
+		long from = after == null ? Long.MIN_VALUE : after;
+		List<ToDoListSummary> result = new ArrayList<>();
+		for (Stripe stripe : lists) {
+			stripe.lock.readLock().lock();
+			try {
+				// the first ones of each stripe are enough to find the first ones overall
+				long[] ids = stripe.map.keys();
+				Arrays.sort(ids);
+				int start = Arrays.binarySearch(ids, from);
+				start = start < 0 ? -start - 1 : start + 1;
+				for (int i = start; i < ids.length && i - start < limit; i++) {
+					ListState state = stripe.map.get(ids[i]);
+					result.add(new ToDoListSummary(state.id, state.name, state.size));
+				}
+			} finally {
+				stripe.lock.readLock().unlock();
+			}
+		}
+		result.sort(Comparator.comparing(ToDoListSummary::getId));
+		return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+	}
+
+	@Override
+	public Long findListVersion(Long id) {
+		if (id == null) {
+			return null;
+		}
+		Stripe stripe = stripe(lists, id);
+		stripe.lock.readLock().lock();
+		try {
+			ListState state = stripe.map.get(id);
+			return state == null ? null : state.version;
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean existsList(Long id) {
+		if (id == null) {
+			return false;
+		}
+		Stripe stripe = stripe(lists, id);
+		stripe.lock.readLock().lock();
+		try {
+			return stripe.map.containsKey(id);
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public long countLists() {
+		return count(lists);
+	}
+
+	@Override
+	public ToDoList saveList(ToDoList list) {
+		String name = list.getName();
+		if (name == null) {
+			throw new DataIntegrityViolationException("List name missing");
+		}
+		Long id = list.getId();
+		LongObjectHashMap<ToDoEntry> moved = detachFromOtherLists(id == null ? 0 : id, list.getEntries());
+		if (id != null) {
+			Stripe stripe = stripe(lists, id);
+			stripe.lock.writeLock().lock();
+			try {
+				ListState state = stripe.map.get(id);
+				if (state != null) {
+					if (!name.equals(state.name)) {
+						reserveName(name, id);
+						listIdsByName.remove(state.name, id);
+						state.name = name;
+					}
+					state.version = list.getVersion();
+					saveEntries(state, list.getEntries(), moved);
+					return list;
+				}
+			} finally {
+				stripe.lock.writeLock().unlock();
+			}
+		}
+		long newId = nextListId.getAndIncrement();
+		reserveName(name, newId);
+		ListState state = new ListState(newId, name, list.getVersion());
+		Stripe stripe = stripe(lists, newId);
+		stripe.lock.writeLock().lock();
+		try {
+			stripe.map.put(newId, state);
+			list.setId(newId);
+			saveEntries(state, list.getEntries(), moved);
+			return list;
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean incrementListVersion(Long id) {
+		Stripe stripe = stripe(lists, id);
+		stripe.lock.writeLock().lock();
+		try {
+			ListState state = stripe.map.get(id);
+			if (state == null) {
+				return false;
+			}
+			state.version++;
+			return true;
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteList(Long id) {
+		Stripe stripe = stripe(lists, id);
+		stripe.lock.writeLock().lock();
+		try {
+			ListState state = stripe.map.remove(id);
+			if (state == null) {
+				return false;
+			}
+			listIdsByName.remove(state.name, id);
+			removeEntries(state);
+			return true;
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteAll() {
+		lockAll(lists);
+		try {
+			lockAll(entries);
+			try {
+				for (int i = 0; i < lists.length; i++) {
+					lists[i].map.clear();
+					entries[i].map.clear();
+				}
+				listIdsByName.clear();
+			} finally {
+				unlockAll(entries);
+			}
+		} finally {
+			unlockAll(lists);
+		}
+	}
+
+	@Override
+	public ToDoEntry findEntry(Long id) {
+		ListState owner = id == null ? null : owner(id);
+		if (owner == null) {
+			return null;
+		}
+		Stripe stripe = stripe(lists, owner.id);
+		stripe.lock.readLock().lock();
+		try {
+			int index = stripe.map.get(owner.id) == owner ? owner.indexOf(id) : -1;
+			return index < 0 ? null : owner.toEntry(index, owner.reference());
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean existsEntry(Long id) {
+		return id != null && owner(id) != null;
+	}
+
+	@Override
+	public List<ToDoEntry> findEntries(Long listId) {
+		if (listId == null) {
+			return new ArrayList<>();
+		}
+		Stripe stripe = stripe(lists, listId);
+		stripe.lock.readLock().lock();
+		try {
+			ListState state = stripe.map.get(listId);
+			return state == null ? new ArrayList<>() : state.toEntries(state.reference());
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Stream<ToDoEntry> streamEntries(Long listId) {
+		return findEntries(listId).stream();
+	}
+
+	@Override
+	public List<ToDoEntry> findAllEntries() {
+		List<ToDoEntry> result = new ArrayList<>();
+		for (Stripe stripe : lists) {
+			stripe.lock.readLock().lock();
+			try {
+				stripe.map.forEach((id, state) -> result.addAll(state.toEntries(state.reference())));
+			} finally {
+				stripe.lock.readLock().unlock();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public long countEntries() {
+		return count(entries);
+	}
+
+	@Override
+	public void saveEntries(Long listId, Iterable<ToDoEntry> newEntries) {
+		if (!existsList(listId)) {
+			throw new DataIntegrityViolationException("No list with id " + listId);
+		}
+		LongObjectHashMap<ToDoEntry> moved = detachFromOtherLists(listId, newEntries);
+		Stripe stripe = stripe(lists, listId);
+		stripe.lock.writeLock().lock();
+		try {
+			ListState state = stripe.map.get(listId);
+			if (state == null) {
+				throw new DataIntegrityViolationException("No list with id " + listId);
+			}
+			saveEntries(state, newEntries, moved);
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int deleteEntry(Long id, Long listId) {
+		if (listId == null) {
+			ListState owner = owner(id);
+			if (owner == null) {
+				return 0;
+			}
+			listId = owner.id;
+		}
+		Stripe stripe = stripe(lists, listId);
+		stripe.lock.writeLock().lock();
+		try {
+			ListState state = stripe.map.get(listId);
+			int index = state == null ? -1 : state.indexOf(id);
+			if (index < 0) {
+				return 0;
+			}
+			state.remove(index);
+			unindex(id);
+			return 1;
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int deleteEntries(Long listId) {
+		Stripe stripe = stripe(lists, listId);
+		stripe.lock.writeLock().lock();
+		try {
+			ListState state = stripe.map.get(listId);
+			return state == null ? 0 : removeEntries(state);
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void deleteAllEntries() {
+		for (Stripe stripe : lists) {
+			stripe.lock.writeLock().lock();
+			try {
+				stripe.map.forEach((id, state) -> removeEntries(state));
+			} finally {
+				stripe.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Adds the entries to the list or updates the ones it has already. Expects the list stripe to be
+	 * write locked.
+	 */
+	private void saveEntries(ListState state, Iterable<ToDoEntry> newEntries, LongObjectHashMap<ToDoEntry> moved) {
+		ToDoList reference = null;
+		for (ToDoEntry entry : newEntries) {
+			Long id = entry.getId();
+			int index = id != null && owner(id) == state ? state.indexOf(id) : -1;
+			if (index >= 0) {
+				state.descriptions[index] = entry.getDescription();
+			} else {
+				long entryId = id != null && moved != null && moved.containsKey(id) ? id : nextEntryId.getAndIncrement();
+				state.add(entryId, entry.getDescription());
+				index(entryId, state);
+				entry.setId(entryId);
+			}
+			if (entry.getList() == null) {
+				reference = reference == null ? state.reference() : reference;
+				entry.setList(reference);
+			}
+		}
+	}
+
+	/**
+	 * Removes entries that are saved to the given list but belong to another one from that other list,
+	 * returns them by id or null if there are none. Must be called without holding a list stripe lock.
+	 */
+	private LongObjectHashMap<ToDoEntry> detachFromOtherLists(long listId, Iterable<ToDoEntry> newEntries) {
+		LongObjectHashMap<ToDoEntry> moved = null;
+		for (ToDoEntry entry : newEntries) {
+			ListState owner = entry.getId() == null ? null : owner(entry.getId());
+			if (owner != null && owner.id != listId && deleteEntry(entry.getId(), owner.id) == 1) {
+				moved = moved == null ? new LongObjectHashMap<>() : moved;
+				moved.put(entry.getId(), entry);
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * Removes all entries of the list, returns their number. Expects the list stripe to be write locked.
+	 */
+	private int removeEntries(ListState state) {
+		int removed = state.size;
+		for (int i = 0; i < removed; i++) {
+			unindex(state.entryIds[i]);
+		}
+		state.clear();
+		return removed;
+	}
+
+	private void reserveName(String name, long id) {
+		Long owner = listIdsByName.putIfAbsent(name, id);
+		if (owner != null && owner != id) {
+			throw new DataIntegrityViolationException("List name already taken: " + name);
+		}
+	}
+
+	private ListState owner(long entryId) {
+		Stripe stripe = stripe(entries, entryId);
+		stripe.lock.readLock().lock();
+		try {
+			return stripe.map.get(entryId);
+		} finally {
+			stripe.lock.readLock().unlock();
+		}
+	}
+
+	private void index(long entryId, ListState state) {
+		Stripe stripe = stripe(entries, entryId);
+		stripe.lock.writeLock().lock();
+		try {
+			stripe.map.put(entryId, state);
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	private void unindex(long entryId) {
+		Stripe stripe = stripe(entries, entryId);
+		stripe.lock.writeLock().lock();
+		try {
+			stripe.map.remove(entryId);
+		} finally {
+			stripe.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Stripe of the id, taken from the upper bits of its hash as the maps in the stripes use the lower ones
+	 */
+	private static Stripe stripe(Stripe[] stripes, long id) {
+		return stripes[(int) (((LongObjectHashMap.hash(id) & 0xFFFFFFFFL) * stripes.length) >>> 32)];
+	}
+
+	private static long count(Stripe[] stripes) {
+		long count = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.readLock().lock();
+			try {
+				count += stripe.map.size();
+			} finally {
+				stripe.lock.readLock().unlock();
+			}
+		}
+		return count;
+	}
+
+	private static void lockAll(Stripe[] stripes) {
+		for (Stripe stripe : stripes) {
+			stripe.lock.writeLock().lock();
+		}
+	}
+
+	private static void unlockAll(Stripe[] stripes) {
+		for (int i = stripes.length - 1; i >= 0; i--) {
+			stripes[i].lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Lists by list id or, for entry stripes, the list of each entry by entry id
+	 */
+	static class Stripe {
+
+		final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		final LongObjectHashMap<ListState> map = new LongObjectHashMap<>();
+	}
+
+	static class ListState {
+
+		private static final long[] NO_IDS = new long[0];
+
+		private static final String[] NO_DESCRIPTIONS = new String[0];
+
+		final long id;
+
+		String name;
+
+		long version;
+
+		long[] entryIds = NO_IDS;
+
+		String[] descriptions = NO_DESCRIPTIONS;
+
+		int size;
+
+		/**
+		 * Slot of each entry in the arrays by entry id
+		 */
+		final LongObjectHashMap<Integer> slots = new LongObjectHashMap<>();
+
+		ListState(long id, String name, long version) {
+			this.id = id;
+			this.name = name;
+			this.version = version;
+		}
+
+		int indexOf(long entryId) {
+			Integer slot = slots.get(entryId);
+			return slot == null ? -1 : slot;
+		}
+
+		void add(long entryId, String description) {
+			if (size == entryIds.length) {
+				int capacity = Math.max(4, size + (size >> 1));
+				entryIds = Arrays.copyOf(entryIds, capacity);
+				descriptions = Arrays.copyOf(descriptions, capacity);
+			}
+			entryIds[size] = entryId;
+			descriptions[size] = description;
+			slots.put(entryId, size);
+			size++;
+		}
+
+		void remove(int index) {
+			slots.remove(entryIds[index]);
+			int following = size - index - 1;
+			System.arraycopy(entryIds, index + 1, entryIds, index, following);
+			System.arraycopy(descriptions, index + 1, descriptions, index, following);
+			descriptions[--size] = null;
+			// entries keep their order, the following ones move down a slot
+			for (int i = index; i < size; i++) {
+				slots.put(entryIds[i], i);
+			}
+		}
+
+		void clear() {
+			entryIds = NO_IDS;
+			descriptions = NO_DESCRIPTIONS;
+			slots.clear();
+			size = 0;
+		}
+
+		ToDoList reference() {
+			ToDoList list = new ToDoList();
+			list.setId(id);
+			return list;
+		}
+
+		ToDoList toList(boolean withEntries) {
+			ToDoList list = reference();
+			list.setName(name);
+			list.setVersion(version);
+			if (withEntries) {
+				for (int i = 0; i < size; i++) {
+					list.addEntry(toEntry(i, list));
+				}
+			}
+			return list;
+		}
+
+		List<ToDoEntry> toEntries(ToDoList list) {
+			List<ToDoEntry> result = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				result.add(toEntry(i, list));
+			}
+			return result;
+		}
+
+		ToDoEntry toEntry(int index, ToDoList list) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setId(entryIds[index]);
+			entry.setList(list);
+			entry.setDescription(descriptions[index]);
+			return entry;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.todolist.repository.store;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoEntrySummary;
+import com.example.todolist.repository.EntryRepository;
+
+/**
+ * {@link EntryRepository} on top of the {@link ToDoStore} of the active profile
+ */
+@Repository
+@Profile({ "log", "memory" })
+public class StoreEntryRepository extends AbstractStoreRepository<ToDoEntry> implements EntryRepository {
+
+	@Autowired
+	private ToDoStore store;
+
+	@Override
+	protected Long getId(ToDoEntry entry) {
+		return entry.getId();
+	}
+
+	@Override
+	public ToDoEntry findOne(Long id) {
+		return id == null ? null : store.findEntry(id);
+	}
+
+	@Override
+	public boolean exists(Long id) {
+		return id != null && store.existsEntry(id);
+	}
+
+	@Override
+	public List<ToDoEntry> findAll() {
+		return store.findAllEntries();
+	}
+
+	@Override
+	public long count() {
+		return store.countEntries();
+	}
+
+	@Override
+	public <S extends ToDoEntry> S save(S entry) {
+		store.saveEntries(entry.getList() == null ? null : entry.getList().getId(), Collections.singleton(entry));
+		return entry;
+	}
+
+	@Override
+	public void delete(Long id) {
+		store.deleteEntry(id, null);
+	}
+
+	@Override
+	public void deleteAllInBatch() {
+		store.deleteAllEntries();
+	}
+
+	@Override
+	public void insertAll(Long listId, Iterable<ToDoEntry> entries) {
+		store.saveEntries(listId, entries);
+	}
+
+	@Override
+	public Collection<ToDoEntry> findAllByListId(Long listId) {
+		return store.findEntries(listId);
+	}
+
+	@Override
+	public ToDoEntry findByIdAndListId(Long id, Long listId) {
+		ToDoEntry entry = findOne(id);
+		return entry != null && entry.getList().getId().equals(listId) ? entry : null;
+	}
+
+	@Override
+	public List<ToDoEntrySummary> findSummariesByListId(Long listId) {
+		return store.findEntries(listId).stream().map(ToDoEntrySummary::of).collect(Collectors.toList());
+	}
+
+	@Override
+	public Stream<ToDoEntry> streamAllByListId(Long listId) {
+		return store.streamEntries(listId);
+	}
+
+	@Override
+	public int bulkDeleteByListId(Long listId) {
+		return store.deleteEntries(listId);
+	}
+
+	@Override
+	public int bulkDeleteByIdAndListId(Long entryId, Long listId) {
+		return store.deleteEntry(entryId, listId);
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.todolist.repository.store;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * {@link ListRepository} on top of the {@link ToDoStore} of the active profile
+ */
+@Repository
+@Profile({ "log", "memory" })
+public class StoreListRepository extends AbstractStoreRepository<ToDoList> implements ListRepository {
+
+	@Autowired
+	private ToDoStore store;
+
+	@Override
+	protected Long getId(ToDoList list) {
+		return list.getId();
+	}
+
+	@Override
+	public ToDoList findOne(Long id) {
+		return id == null ? null : store.findList(id, false);
+	}
+
+	@Override
+	public boolean exists(Long id) {
+		return id != null && store.existsList(id);
+	}
+
+	@Override
+	public List<ToDoList> findAll() {
+		return store.findLists(false);
+	}
+
+	@Override
+	public long count() {
+		return store.countLists();
+	}
+
+	@Override
+	public <S extends ToDoList> S save(S list) {
+		store.saveList(list);
+		return list;
+	}
+
+	@Override
+	public ToDoList insert(ToDoList list) {
+		return save(list);
+	}
+
+	@Override
+	public void delete(Long id) {
+		store.deleteList(id);
+	}
+
+	@Override
+	public void deleteAllInBatch() {
+		store.deleteAll();
+	}
+
+	@Override
+	public List<ToDoList> findAllWithEntries() {
+		return store.findLists(true);
+	}
+
+	@Override
+	public ToDoList findOneWithEntries(Long id) {
+		return store.findList(id, true);
+	}
+
+	@Override
+	public List<ToDoListSummary> findSummariesAfter(Long after, Pageable pageable) {
+		return store.findSummariesAfter(after, pageable.getPageSize());
+	}
+
+	@Override
+	public Long findVersionById(Long id) {
+		return store.findListVersion(id);
+	}
+
+	@Override
+	public int incrementVersion(Long id) {
+		return store.incrementListVersion(id) ? 1 : 0;
+	}
+
+	@Override
+	public int bulkDeleteById(Long id) {
+		return store.deleteList(id) ? 1 : 0;
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.todolist.repository.store;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+
+/**
+ * Storage for lists and entries outside of JPA, used through {@link StoreListRepository} and
+ * {@link StoreEntryRepository}. Implementations return new objects on every call, changes to them are
+ * only stored when saved again.
+ */
+public interface ToDoStore {
+
+	/**
+	 * List with the given id, with its entries if requested, or null if not found
+	 */
+	ToDoList findList(Long id, boolean withEntries);
+
+	List<ToDoList> findLists(boolean withEntries);
+
+	/**
+	 * Up to {@code limit} summaries of lists with id greater than {@code after}, ordered by id
+	 */
+	List<ToDoListSummary> findSummariesAfter(Long after, int limit);
+
+	/**
+	 * Version of the list with the given id, or null if not found
+	 */
+	Long findListVersion(Long id);
+
+	boolean existsList(Long id);
+
+	long countLists();
+
+	/**
+	 * Stores the list and its entries, assigning ids to new ones. Throws
+	 * {@link org.springframework.dao.DataIntegrityViolationException} if the name is taken by another list.
+	 */
+	ToDoList saveList(ToDoList list);
+
+	boolean incrementListVersion(Long id);
+
+	/**
+	 * Deletes the list with the given id and its entries
+	 */
+	boolean deleteList(Long id);
+
+	/**
+	 * Deletes all lists and entries
+	 */
+	void deleteAll();
+
+	/**
+	 * Entry with the given id, or null if not found
+	 */
+	ToDoEntry findEntry(Long id);
+
+	boolean existsEntry(Long id);
+
+	List<ToDoEntry> findEntries(Long listId);
+
+	/**
+	 * Entries of the given list, read one by one as the stream is consumed
+	 */
+	Stream<ToDoEntry> streamEntries(Long listId);
+
+	List<ToDoEntry> findAllEntries();
+
+	long countEntries();
+
+	/**
+	 * Stores the entries in the list with the given id, assigning ids to new ones. Throws
+	 * {@link org.springframework.dao.DataIntegrityViolationException} if there is no such list.
+	 */
+	void saveEntries(Long listId, Iterable<ToDoEntry> entries);
+
+	/**
+	 * Deletes the entry with the given id if it belongs to the given list, any list if listId is null.
+	 * Returns the number of deleted entries.
+	 */
+	int deleteEntry(Long id, Long listId);
+
+	/**
+	 * Deletes all entries of the given list, returns their number
+	 */
+	int deleteEntries(Long listId);
+
+	void deleteAllEntries();
+}
@@ -0,0 +1,400 @@
+package com.example.todolist.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.util.AfterCommit;
+import com.example.todolist.util.LongObjectHashMap;
+
+/**
+ * In-memory inverted index over entry descriptions. Every term maps to a posting list of the ids of the
+ * entries containing it, sorted by id, with the number of occurrences. Searches intersect the posting
+ * lists of all query terms, starting with the shortest, and rank the matches with BM25, so their cost
+ * follows the rarest term rather than the number of entries.
+ * <p>
+ * Changes are applied once the current transaction commits, like {@link com.example.todolist.web.ListsVersion}.
+ * The index lives in memory only and is rebuilt from the repositories on startup.
+ */
+@Component
+public class EntryIndex {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EntryIndex.class);
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	@Autowired
+	private ListRepository listRepository;
+	@Autowired
+	private EntryRepository entryRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private ApplicationContext applicationContext;
+	@Autowired
+	private Shards shards;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final AtomicBoolean built = new AtomicBoolean();
+
+	private Index index = new Index();
+
+	/**
+	 * Builds the index once all beans, including a restored snapshot, are ready and before requests are
+	 * served
+	 */
+	@EventListener
+	public void onContextRefreshed(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() == applicationContext && built.compareAndSet(false, true)) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Replaces the index with one built from all entries in the repositories. Searches keep using the
+	 * old index meanwhile, changes committed during the rebuild may be missing from the new one.
+	 */
+	public void rebuild() {
+		long start = System.nanoTime();
+		Index fresh = new Index();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		shards.forEach(() -> transaction.execute(status -> {
+			for (ToDoList list : listRepository.findAll()) {
+				try (Stream<ToDoEntry> entries = entryRepository.streamAllByListId(list.getId())) {
+					entries.forEach(entry -> fresh.add(list.getId(), entry.getId(), entry.getDescription()));
+				}
+				// keeps the persistence context from holding every entry read so far
+				entityManager.clear();
+			}
+			return null;
+		}));
+		lock.writeLock().lock();
+		try {
+			index = fresh;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		LOG.info("Indexed {} entries with {} terms in {} ms", fresh.documents.size(), fresh.postings.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	/**
+	 * Indexes the entry, replacing what was indexed for its id before
+	 */
+	public void add(Long listId, ToDoEntry entry) {
+		addAll(listId, Collections.singletonList(entry));
+	}
+
+	public void addAll(Long listId, Collection<ToDoEntry> entries) {
+		long[] ids = new long[entries.size()];
+		String[] descriptions = new String[entries.size()];
+		int i = 0;
+		for (ToDoEntry entry : entries) {
+			ids[i] = entry.getId();
+			descriptions[i++] = entry.getDescription();
+		}
+		afterCommit(() -> {
+			for (int j = 0; j < ids.length; j++) {
+				index.add(listId, ids[j], descriptions[j]);
+			}
+		});
+	}
+
+	public void remove(Long entryId) {
+		afterCommit(() -> index.remove(entryId));
+	}
+
+	/**
+	 * Removes all entries of the given list
+	 */
+	public void removeList(Long listId) {
+		afterCommit(() -> {
+			ListDocuments list = index.lists.get(listId);
+			if (list != null) {
+				for (long entryId : Arrays.copyOf(list.ids, list.size)) {
+					index.remove(entryId);
+				}
+			}
+		});
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return index.documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Up to {@code limit} entries containing all terms of the query, best match first. Only entries of
+	 * the given list are returned if listId is not null.
+	 */
+	public List<SearchHit> search(String query, Long listId, int limit) {
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+		if (terms.isEmpty() || limit < 1) {
+			return new ArrayList<>();
+		}
+		lock.readLock().lock();
+		try {
+			return index.search(terms, listId, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Applies the change under the write lock once the current transaction commits, or right away
+	 * outside of one
+	 */
+	private void afterCommit(Runnable change) {
+		AfterCommit.run(() -> {
+			lock.writeLock().lock();
+			try {
+				change.run();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	/**
+	 * Posting lists, documents and lists of one generation of the index
+	 */
+	static class Index {
+
+		final Map<String, Postings> postings = new HashMap<>();
+
+		final LongObjectHashMap<Document> documents = new LongObjectHashMap<>();
+
+		final LongObjectHashMap<ListDocuments> lists = new LongObjectHashMap<>();
+
+		long totalLength;
+
+		void add(long listId, long entryId, String description) {
+			remove(entryId);
+			Map<String, int[]> frequencies = new HashMap<>();
+			List<String> tokens = Tokenizer.tokenize(description);
+			for (String token : tokens) {
+				frequencies.computeIfAbsent(token, term -> new int[1])[0]++;
+			}
+			String[] terms = new String[frequencies.size()];
+			int i = 0;
+			for (Map.Entry<String, int[]> term : frequencies.entrySet()) {
+				Postings termPostings = postings.computeIfAbsent(term.getKey(), Postings::new);
+				termPostings.add(entryId, term.getValue()[0]);
+				// shares the instance of the posting list instead of keeping the tokenized copy
+				terms[i++] = termPostings.term;
+			}
+			documents.put(entryId, new Document(listId, tokens.size(), terms));
+			ListDocuments list = lists.get(listId);
+			if (list == null) {
+				list = new ListDocuments();
+				lists.put(listId, list);
+			}
+			list.add(entryId);
+			totalLength += tokens.size();
+		}
+
+		void remove(long entryId) {
+			Document document = documents.remove(entryId);
+			if (document == null) {
+				return;
+			}
+			for (String term : document.terms) {
+				Postings termPostings = postings.get(term);
+				termPostings.remove(entryId);
+				if (termPostings.size == 0) {
+					postings.remove(term);
+				}
+			}
+			ListDocuments list = lists.get(document.listId);
+			list.remove(entryId);
+			if (list.size == 0) {
+				lists.remove(document.listId);
+			}
+			totalLength -= document.length;
+		}
+
+		List<SearchHit> search(List<String> terms, Long listId, int limit) {
+			Postings[] matching = new Postings[terms.size()];
+			for (int i = 0; i < matching.length; i++) {
+				matching[i] = postings.get(terms.get(i));
+				if (matching[i] == null) {
+					return new ArrayList<>();
+				}
+			}
+			Arrays.sort(matching, Comparator.comparingInt(p -> p.size));
+			double averageLength = (double) totalLength / documents.size();
+			double[] idf = new double[matching.length];
+			for (int i = 0; i < matching.length; i++) {
+				idf[i] = Math.log(1 + (documents.size() - matching[i].size + 0.5) / (matching[i].size + 0.5));
+			}
+
+			PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(SearchHit::getScore));
+			int[] positions = new int[matching.length];
+			Postings shortest = matching[0];
+			candidates: for (int c = 0; c < shortest.size; c++) {
+				long id = shortest.ids[c];
+				Document document = documents.get(id);
+				if (listId != null && document.listId != listId) {
+					continue;
+				}
+				double score = 0;
+				for (int i = 0; i < matching.length; i++) {
+					int position = i == 0 ? c : matching[i].find(id, positions[i]);
+					if (position < 0) {
+						// the posting lists are sorted, later candidates start searching after this one
+						positions[i] = -position - 1;
+						continue candidates;
+					}
+					positions[i] = position;
+					int frequency = matching[i].frequencies[position];
+					score += idf[i] * frequency * (K1 + 1)
+							/ (frequency + K1 * (1 - B + B * document.length / averageLength));
+				}
+				best.add(new SearchHit(id, document.listId, score));
+				if (best.size() > limit) {
+					best.poll();
+				}
+			}
+			List<SearchHit> hits = new ArrayList<>(best);
+			hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+			return hits;
+		}
+	}
+
+	/**
+	 * Indexed entry with its list, number of terms and distinct terms
+	 */
+	static class Document {
+
+		final long listId;
+
+		final int length;
+
+		final String[] terms;
+
+		Document(long listId, int length, String[] terms) {
+			this.listId = listId;
+			this.length = length;
+			this.terms = terms;
+		}
+	}
+
+	/**
+	 * Ids of the entries containing a term, sorted, with the number of occurrences of the term in each
+	 */
+	static class Postings {
+
+		final String term;
+
+		long[] ids = new long[2];
+
+		int[] frequencies = new int[2];
+
+		int size;
+
+		Postings(String term) {
+			this.term = term;
+		}
+
+		void add(long id, int frequency) {
+			// ids mostly grow, so this is usually an append
+			int position = size == 0 || ids[size - 1] < id ? -size - 1 : find(id, 0);
+			if (position >= 0) {
+				frequencies[position] = frequency;
+				return;
+			}
+			position = -position - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+				frequencies = Arrays.copyOf(frequencies, ids.length);
+			}
+			System.arraycopy(ids, position, ids, position + 1, size - position);
+			System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+			ids[position] = id;
+			frequencies[position] = frequency;
+			size++;
+		}
+
+		void remove(long id) {
+			int position = find(id, 0);
+			if (position >= 0) {
+				System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+				System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+				size--;
+			}
+		}
+
+		/**
+		 * Position of the id at or after {@code from}, or (-(insertion point) - 1) if not found
+		 */
+		int find(long id, int from) {
+			return Arrays.binarySearch(ids, from, size, id);
+		}
+	}
+
+	/**
+	 * Ids of the indexed entries of a list, in no particular order
+	 */
+	static class ListDocuments {
+
+		long[] ids = new long[4];
+
+		int size;
+
+		void add(long id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size << 1);
+			}
+			ids[size++] = id;
+		}
+
+		void remove(long id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					ids[i] = ids[--size];
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package com.example.todolist.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.todolist.model.ToDoListSummary;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.util.AfterCommit;
+
+/**
+ * In-memory prefix index over list names for type-ahead. Names are kept in flat arrays sorted by their
+ * lower case form, so memory is a few references per list instead of a node per character as in a
+ * trie, and the lists with a given prefix are a contiguous range found by binary search.
+ * <p>
+ * The arrays are never changed once published: writers copy them under a lock and swap in the copy,
+ * readers only read the current volatile reference and never block. Writes are rare compared to
+ * keystrokes, so the copying is cheaper than making every read pay for synchronization. Changes are
+ * applied once the current transaction commits, like {@link com.example.todolist.web.ListsVersion}.
+ */
+@Component
+public class ListNameIndex {
+
+	private static final int REBUILD_PAGE_SIZE = 1000;
+
+	private static final Names EMPTY = new Names(new String[0], new String[0], new long[0]);
+
+	@Autowired
+	private ListRepository listRepository;
+	@Autowired
+	private ApplicationContext applicationContext;
+	@Autowired
+	private Shards shards;
+
+	private final AtomicBoolean built = new AtomicBoolean();
+
+	private final Object writeLock = new Object();
+
+	private volatile Names names = EMPTY;
+
+	/**
+	 * Builds the index once all beans, including a restored snapshot, are ready and before requests are
+	 * served
+	 */
+	@EventListener
+	public void onContextRefreshed(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() == applicationContext && built.compareAndSet(false, true)) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Replaces the index with one built from all lists in the repository
+	 */
+	public void rebuild() {
+		List<ToDoListSummary> all = new ArrayList<>();
+		shards.forEach(() -> readSummaries(all));
+
+		all.sort((a, b) -> compare(key(a.getName()), a.getName(), a.getId(), key(b.getName()), b.getName(),
+				b.getId()));
+		String[] keys = new String[all.size()];
+		String[] sortedNames = new String[all.size()];
+		long[] ids = new long[all.size()];
+		for (int i = 0; i < ids.length; i++) {
+			sortedNames[i] = all.get(i).getName();
+			keys[i] = key(sortedNames[i]);
+			ids[i] = all.get(i).getId();
+		}
+		synchronized (writeLock) {
+			names = new Names(keys, sortedNames, ids);
+		}
+	}
+
+	/**
+	 * Adds the summaries of all lists on the selected shard, page by page
+	 */
+	private void readSummaries(List<ToDoListSummary> all) {
+		List<ToDoListSummary> page;
+		long after = 0;
+		do {
+			page = listRepository.findSummariesAfter(after, new PageRequest(0, REBUILD_PAGE_SIZE));
+			all.addAll(page);
+			if (!page.isEmpty()) {
+				after = page.get(page.size() - 1).getId();
+			}
+		} while (page.size() == REBUILD_PAGE_SIZE);
+	}
+
+	public void add(Long listId, String name) {
+		afterCommit(() -> {
+			Names current = names;
+			int position = current.find(key(name), name, listId);
+			if (position >= 0) {
+				return;
+			}
+			names = current.insert(-position - 1, key(name), name, listId);
+		});
+	}
+
+	public void remove(Long listId, String name) {
+		afterCommit(() -> {
+			Names current = names;
+			int position = current.find(key(name), name, listId);
+			if (position >= 0) {
+				names = current.delete(position);
+			}
+		});
+	}
+
+	public int size() {
+		return names.ids.length;
+	}
+
+	/**
+	 * Up to {@code limit} lists whose name starts with the prefix, ignoring case, in alphabetical order
+	 */
+	public List<ListSuggestion> suggest(String prefix, int limit) {
+		Names current = names;
+		String key = key(prefix);
+		// the first name not before the prefix is the first one starting with it, if any
+		int position = current.find(key, "", Long.MIN_VALUE);
+		if (position < 0) {
+			position = -position - 1;
+		}
+		List<ListSuggestion> suggestions = new ArrayList<>();
+		for (int i = position; i < current.keys.length && suggestions.size() < limit
+				&& current.keys[i].startsWith(key); i++) {
+			suggestions.add(new ListSuggestion(current.ids[i], current.names[i]));
+		}
+		return suggestions;
+	}
+
+	/**
+	 * Lower case form names are sorted and matched by. Returns the name itself if it is lower case
+	 * already, so the key costs no extra memory.
+	 */
+	private static String key(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Orders by key, names differing only in case by the name itself, and lists of the same name by id
+	 */
+	private static int compare(String key, String name, long id, String otherKey, String otherName, long otherId) {
+		int result = key.compareTo(otherKey);
+		if (result == 0) {
+			result = name.compareTo(otherName);
+		}
+		return result != 0 ? result : Long.compare(id, otherId);
+	}
+
+	/**
+	 * Applies the change under the write lock once the current transaction commits, or right away
+	 * outside of one
+	 */
+	private void afterCommit(Runnable change) {
+		AfterCommit.run(() -> {
+			synchronized (writeLock) {
+				change.run();
+			}
+		});
+	}
+
+	/**
+	 * Immutable generation of the index: keys, names and list ids at the same positions, sorted by key.
+	 * A list is found by its name and id, so lists sharing a name are all kept.
+	 */
+	static class Names {
+
+		final String[] keys;
+
+		final String[] names;
+
+		final long[] ids;
+
+		Names(String[] keys, String[] names, long[] ids) {
+			this.keys = keys;
+			this.names = names;
+			this.ids = ids;
+		}
+
+		/**
+		 * Position of the list, or (-(insertion point) - 1) if not found
+		 */
+		int find(String key, String name, long id) {
+			int low = 0;
+			int high = keys.length - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				int result = compare(keys[middle], names[middle], ids[middle], key, name, id);
+				if (result < 0) {
+					low = middle + 1;
+				} else if (result > 0) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+			return -low - 1;
+		}
+
+		Names insert(int position, String key, String name, long id) {
+			int length = keys.length;
+			String[] newKeys = new String[length + 1];
+			String[] newNames = new String[length + 1];
+			long[] newIds = new long[length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, position);
+			System.arraycopy(names, 0, newNames, 0, position);
+			System.arraycopy(ids, 0, newIds, 0, position);
+			newKeys[position] = key;
+			newNames[position] = name;
+			newIds[position] = id;
+			System.arraycopy(keys, position, newKeys, position + 1, length - position);
+			System.arraycopy(names, position, newNames, position + 1, length - position);
+			System.arraycopy(ids, position, newIds, position + 1, length - position);
+			return new Names(newKeys, newNames, newIds);
+		}
+
+		Names delete(int position) {
+			int length = keys.length;
+			String[] newKeys = new String[length - 1];
+			String[] newNames = new String[length - 1];
+			long[] newIds = new long[length - 1];
+			System.arraycopy(keys, 0, newKeys, 0, position);
+			System.arraycopy(names, 0, newNames, 0, position);
+			System.arraycopy(ids, 0, newIds, 0, position);
+			System.arraycopy(keys, position + 1, newKeys, position, length - position - 1);
+			System.arraycopy(names, position + 1, newNames, position, length - position - 1);
+			System.arraycopy(ids, position + 1, newIds, position, length - position - 1);
+			return new Names(newKeys, newNames, newIds);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.todolist.search;
+
+/**
+ * List whose name matches a type-ahead prefix
+ */
+public class ListSuggestion {
+
+	private final long id;
+
+	private final String name;
+
+	public ListSuggestion(long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.todolist.search;
+
+/**
+ * Entry matching a search, with its list and relevance score. Higher scores are better matches.
+ */
+public class SearchHit {
+
+	private final long entryId;
+
+	private final long listId;
+
+	private final double score;
+
+	public SearchHit(long entryId, long listId, double score) {
+		this.entryId = entryId;
+		this.listId = listId;
+		this.score = score;
+	}
+
+	public long getEntryId() {
+		return entryId;
+	}
+
+	public long getListId() {
+		return listId;
+	}
+
+	public double getScore() {
+		return score;
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.todolist.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower case terms of letters and digits. Terms shorter than {@link #MIN_LENGTH} or
+ * longer than {@link #MAX_LENGTH} characters are dropped.
+ */
+public final class Tokenizer {
+
+	static final int MIN_LENGTH = 2;
+
+	static final int MAX_LENGTH = 64;
+
+	private Tokenizer() {
+	}
+
+	/**
+	 * Terms of the text in order of appearance, with repetitions
+	 */
+	public static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean termChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (termChar && start < 0) {
+				start = i;
+			} else if (!termChar && start >= 0) {
+				int length = i - start;
+				if (length >= MIN_LENGTH && length <= MAX_LENGTH) {
+					terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				}
+				start = -1;
+			}
+		}
+		return terms;
+	}
+}
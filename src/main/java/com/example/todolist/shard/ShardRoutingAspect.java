@@ -0,0 +1,93 @@
+package com.example.todolist.shard;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+
+import com.example.todolist.id.IdGenerator;
+import com.example.todolist.model.ToDoList;
+
+/**
+ * Routes every controller call with a {@code listId} argument to the shard of the list. It runs before
+ * the transaction advice, so the whole transaction, including the flush on commit, goes to that shard.
+ * A call creating a list, one with a {@link ToDoList} argument, gets a new id for the list up front and
+ * is routed to its shard the same way. The id is one of the shard of the list name, see
+ * {@link Shards#shardOfName(String)}. Other calls keep what they select themselves, see
+ * {@link Shards#select(Long)}, until they return.
+ */
+@Aspect
+public class ShardRoutingAspect implements Ordered {
+
+	static final String LIST_ID = "listId";
+
+	private final Shards shards;
+
+	private final IdGenerator idGenerator;
+
+	/**
+	 * Position of the list id argument per controller method, -1 if it has none
+	 */
+	private final ConcurrentMap<Method, Integer> listIdPositions = new ConcurrentHashMap<>();
+
+	public ShardRoutingAspect(Shards shards, IdGenerator idGenerator) {
+		this.shards = shards;
+		this.idGenerator = idGenerator;
+	}
+
+	@Around("within(com.example.todolist.controller..*) && execution(public * *(..))")
+	public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+		MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+		int position = listIdPositions.computeIfAbsent(signature.getMethod(), method -> {
+			String[] names = signature.getParameterNames();
+			return names == null ? -1 : Arrays.asList(names).indexOf(LIST_ID);
+		});
+		Object listId = position < 0 ? null : joinPoint.getArgs()[position];
+		if (listId == null) {
+			listId = assignNewListId(joinPoint.getArgs());
+		}
+		Integer previous = Shards.selected();
+		if (listId instanceof Long) {
+			shards.select((Long) listId);
+		}
+		try {
+			return joinPoint.proceed();
+		} finally {
+			Shards.restore(previous);
+		}
+	}
+
+	/**
+	 * Gives the new list among the arguments an id on the shard of its name and returns it, null if there
+	 * is none
+	 */
+	private Long assignNewListId(Object[] args) {
+		for (Object arg : args) {
+			if (arg instanceof ToDoList) {
+				ToDoList list = (ToDoList) arg;
+				long id = idGenerator.nextId();
+				if (list.getName() != null) {
+					// ids spread evenly over the shards, this takes as many tries as there are shards on average
+					int shard = shards.shardOfName(list.getName());
+					while (shards.shardOf(id) != shard) {
+						id = idGenerator.nextId();
+					}
+				}
+				list.setId(id);
+				return id;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+}
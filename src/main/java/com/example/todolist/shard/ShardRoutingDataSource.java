@@ -0,0 +1,33 @@
+package com.example.todolist.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard selected on the current thread, see {@link Shards}, or of shard 0
+ * if none is
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+	ShardRoutingDataSource(List<DataSource> shards) {
+		Map<Object, Object> targets = new HashMap<>();
+		for (int shard = 0; shard < shards.size(); shard++) {
+			targets.put(shard, shards.get(shard));
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(shards.get(0));
+		// an unknown shard is a bug, not a reason to write to shard 0
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return Shards.selected();
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.todolist.shard;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.MetadataImplementor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.hbm2ddl.Target;
+
+/**
+ * Creates the schema on every shard but the first when hibernate.hbm2ddl.auto is create or create-drop.
+ * Hibernate itself only sees the routing data source and creates the schema on shard 0. With any other
+ * setting the shards are expected to be set up like shard 0.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+	private final List<DataSource> shards;
+
+	public ShardSchemaIntegrator(List<DataSource> shards) {
+		this.shards = shards;
+	}
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+			SessionFactoryServiceRegistry serviceRegistry) {
+		Object auto = serviceRegistry.getService(ConfigurationService.class).getSettings()
+				.get(AvailableSettings.HBM2DDL_AUTO);
+		if (!"create".equals(auto) && !"create-drop".equals(auto)) {
+			return;
+		}
+		for (int shard = 1; shard < shards.size(); shard++) {
+			try (Connection connection = shards.get(shard).getConnection()) {
+				new SchemaExport((MetadataImplementor) metadata, connection).execute(Target.EXPORT,
+						SchemaExport.Type.BOTH);
+			} catch (SQLException e) {
+				throw new HibernateException("Could not create the schema on shard " + shard, e);
+			}
+		}
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		// the schema of in-memory shards goes away with them
+	}
+}
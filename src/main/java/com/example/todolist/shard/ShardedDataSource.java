@@ -0,0 +1,43 @@
+package com.example.todolist.shard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Data source of the shards, handing out connections of the shard selected on the current thread, see
+ * {@link Shards}, or of shard 0 if none is. Connections are only taken from the shard on their first
+ * statement, so a transaction can be started before its shard is known.
+ */
+public class ShardedDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	private final List<DataSource> shards;
+
+	public ShardedDataSource(List<? extends DataSource> shards) {
+		this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+		setTargetDataSource(new ShardRoutingDataSource(this.shards));
+		afterPropertiesSet();
+	}
+
+	/**
+	 * The data sources of the shards, by shard number
+	 */
+	public List<DataSource> getShards() {
+		return shards;
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (DataSource shard : shards) {
+			if (shard instanceof Closeable) {
+				((Closeable) shard).close();
+			}
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package com.example.todolist.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.example.todolist.util.LongObjectHashMap;
+
+/**
+ * The databases lists and their entries are partitioned over, by the hash of the list id. Statements run
+ * on the shard selected on the current thread, see {@link ShardedDataSource}; statements outside of
+ * a routed call go to shard 0. Without sharding there is a single shard and routing does nothing.
+ */
+public class Shards implements DisposableBean {
+
+	private static final ThreadLocal<Integer> SELECTED = new ThreadLocal<>();
+
+	private final int count;
+
+	/**
+	 * Runs the queries of {@link #gather(Supplier)}, null with a single shard
+	 */
+	private final ExecutorService gatherExecutor;
+
+	public Shards(int count, int gatherThreads) {
+		if (count < 1) {
+			throw new IllegalArgumentException("At least one shard required: " + count);
+		}
+		this.count = count;
+		if (count == 1) {
+			gatherExecutor = null;
+		} else {
+			AtomicInteger threads = new AtomicInteger();
+			gatherExecutor = Executors.newFixedThreadPool(gatherThreads, runnable -> {
+				Thread thread = new Thread(runnable, "shard-gather-" + threads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * A single shard, the data source configured by spring.datasource
+	 */
+	public static Shards single() {
+		return new Shards(1, 0);
+	}
+
+	public int count() {
+		return count;
+	}
+
+	public int shardOf(long listId) {
+		// ids are time-ordered, hashing spreads consecutive ones evenly
+		return count == 1 ? 0 : Math.floorMod(LongObjectHashMap.hash(listId), count);
+	}
+
+	/**
+	 * The shard of every list with the given name. New lists get an id of this shard, so the unique
+	 * constraint on list names of a single shard keeps names unique across all of them.
+	 */
+	public int shardOfName(String name) {
+		return count == 1 ? 0 : Math.floorMod(LongObjectHashMap.hash(name.hashCode()), count);
+	}
+
+	/**
+	 * Whether the list is stored on the shard selected on the current thread
+	 */
+	public boolean owns(long listId) {
+		Integer selected = SELECTED.get();
+		return shardOf(listId) == (selected == null ? 0 : selected);
+	}
+
+	/**
+	 * Routes the following statements of the current thread to the shard of the list, until the
+	 * enclosing routed call returns. The statements of a transaction must all go to one shard, its
+	 * connection is taken on the first one.
+	 */
+	public void select(Long listId) {
+		if (count > 1) {
+			SELECTED.set(shardOf(listId));
+		}
+	}
+
+	/**
+	 * Runs the action with its statements routed to the given shard
+	 */
+	public <T> T callOn(int shard, Supplier<T> action) {
+		Integer previous = SELECTED.get();
+		SELECTED.set(shard);
+		try {
+			return action.get();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Runs the action with its statements routed to the shard of the list
+	 */
+	public <T> T callFor(long listId, Supplier<T> action) {
+		return callOn(shardOf(listId), action);
+	}
+
+	/**
+	 * Runs the action once on every shard, one after the other, in the current thread
+	 */
+	public void forEach(Runnable action) {
+		for (int shard = 0; shard < count; shard++) {
+			callOn(shard, () -> {
+				action.run();
+				return null;
+			});
+		}
+	}
+
+	/**
+	 * Runs the action on all shards in parallel and returns the results in the order of the shards.
+	 * With a single shard the action runs in the current thread. The action must not rely on a
+	 * transaction or persistence context of the current thread.
+	 */
+	public <T> List<T> gather(Supplier<T> action) {
+		List<T> results = new ArrayList<>(count);
+		if (gatherExecutor == null) {
+			results.add(callOn(0, action));
+			return results;
+		}
+		List<Future<T>> futures = new ArrayList<>(count);
+		for (int shard = 0; shard < count; shard++) {
+			int target = shard;
+			futures.add(gatherExecutor.submit(() -> callOn(target, action)));
+		}
+		try {
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while gathering from shards", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("Gathering from shards failed", e.getCause());
+		} finally {
+			for (Future<T> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public void destroy() {
+		if (gatherExecutor != null) {
+			gatherExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The shard selected on the current thread, null if none
+	 */
+	static Integer selected() {
+		return SELECTED.get();
+	}
+
+	static void restore(Integer previous) {
+		if (previous == null) {
+			SELECTED.remove();
+		} else {
+			SELECTED.set(previous);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.todolist.snapshot;
+
+/**
+ * Snapshot file could not be written or read
+ */
+public class SnapshotException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public SnapshotException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
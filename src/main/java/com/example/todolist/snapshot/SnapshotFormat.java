@@ -0,0 +1,38 @@
+package com.example.todolist.snapshot;
+
+/**
+ * Layout of snapshot files. A header of magic number, format version and compression flag is followed
+ * by the body, GZIP compressed if flagged. The body is a sequence of records, each starting with its
+ * type byte:
+ * <ul>
+ * <li>list: id, version, name</li>
+ * <li>entry: id, list id, description</li>
+ * <li>end: number of lists and entries written, missing if the file is truncated</li>
+ * </ul>
+ * Numbers are big-endian longs, strings an int byte length (-1 for null) followed by UTF-8 bytes. A list
+ * comes before its entries. Sharded exports write the lists and entries of one shard after the other, so
+ * lists and entries of different shards interleave.
+ */
+final class SnapshotFormat {
+
+	static final int MAGIC = 0x54444C53;
+
+	static final short VERSION = 1;
+
+	static final int HEADER_SIZE = 4 + 2 + 1;
+
+	static final byte UNCOMPRESSED = 0;
+
+	static final byte GZIP = 1;
+
+	static final byte LIST = 1;
+
+	static final byte ENTRY = 2;
+
+	static final byte END = 3;
+
+	static final int BUFFER_SIZE = 256 * 1024;
+
+	private SnapshotFormat() {
+	}
+}
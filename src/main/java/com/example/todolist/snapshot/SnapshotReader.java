@@ -0,0 +1,132 @@
+package com.example.todolist.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a snapshot file written by {@link SnapshotWriter}, handing every record to a {@link Visitor}.
+ * Fails with an {@link IOException} if the file is not a snapshot, is truncated or its record counts
+ * do not match.
+ */
+public class SnapshotReader implements Closeable {
+
+	private final FileChannel file;
+
+	private final ReadableByteChannel body;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(SnapshotFormat.BUFFER_SIZE);
+
+	public SnapshotReader(Path path) throws IOException {
+		file = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			buffer.limit(SnapshotFormat.HEADER_SIZE);
+			while (buffer.hasRemaining() && file.read(buffer) >= 0) {
+				// reads until the header is complete
+			}
+			buffer.flip();
+			if (buffer.remaining() < SnapshotFormat.HEADER_SIZE || buffer.getInt() != SnapshotFormat.MAGIC) {
+				throw new IOException(path + " is not a snapshot");
+			}
+			short version = buffer.getShort();
+			if (version != SnapshotFormat.VERSION) {
+				throw new IOException("Unsupported snapshot version " + version + " in " + path);
+			}
+			body = buffer.get() == SnapshotFormat.GZIP
+					? Channels.newChannel(new GZIPInputStream(Channels.newInputStream(file), SnapshotFormat.BUFFER_SIZE))
+					: file;
+			buffer.clear().flip();
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads all records up to the end record
+	 */
+	public void read(Visitor visitor) throws IOException {
+		long lists = 0;
+		long entries = 0;
+		while (true) {
+			require(1);
+			byte type = buffer.get();
+			switch (type) {
+			case SnapshotFormat.LIST:
+				require(8 + 8 + 4);
+				visitor.list(buffer.getLong(), buffer.getLong(), string());
+				lists++;
+				break;
+			case SnapshotFormat.ENTRY:
+				require(8 + 8 + 4);
+				visitor.entry(buffer.getLong(), buffer.getLong(), string());
+				entries++;
+				break;
+			case SnapshotFormat.END:
+				require(8 + 8);
+				if (buffer.getLong() != lists || buffer.getLong() != entries) {
+					throw new IOException("Snapshot record counts do not match");
+				}
+				return;
+			default:
+				throw new IOException("Unknown snapshot record type " + type);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			body.close();
+		} finally {
+			file.close();
+		}
+	}
+
+	private String string() throws IOException {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		require(length);
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Makes sure the buffer holds at least the given number of unread bytes
+	 */
+	private void require(int size) throws IOException {
+		if (buffer.remaining() >= size) {
+			return;
+		}
+		if (size > buffer.capacity()) {
+			throw new IOException("Record of " + size + " bytes exceeds the snapshot buffer");
+		}
+		buffer.compact();
+		while (buffer.position() < size) {
+			if (body.read(buffer) < 0) {
+				throw new IOException("Snapshot is truncated");
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Receives the records of a snapshot in the order they were written
+	 */
+	public interface Visitor {
+
+		void list(long id, long version, String name) throws IOException;
+
+		void entry(long id, long listId, String description) throws IOException;
+	}
+}
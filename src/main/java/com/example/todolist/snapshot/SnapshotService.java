@@ -0,0 +1,259 @@
+package com.example.todolist.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todolist.id.SnowflakeIdGenerator;
+import com.example.todolist.model.DescriptionConverter;
+import com.example.todolist.model.ToDoEntrySummary;
+import com.example.todolist.shard.Shards;
+
+/**
+ * Exports all lists and entries to a snapshot file at todolist.snapshot.path and loads it back into
+ * the empty database on startup, with plain JDBC batch inserts instead of going through JPA. The
+ * snapshot is written on shutdown and, if todolist.snapshot.interval-ms is set, periodically.
+ * Shards are exported one after the other into the same file, and every shard restores its own lists.
+ * <p>
+ * Only what was in the last snapshot survives a restart; changes made after it are lost on a crash.
+ */
+@Component
+@ConditionalOnProperty(name = "todolist.snapshot.path")
+public class SnapshotService implements SmartInitializingSingleton {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SnapshotService.class);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private Shards shards;
+
+	@Value("${todolist.snapshot.path}")
+	private String path;
+	@Value("${todolist.snapshot.compress:true}")
+	private boolean compress;
+	@Value("${todolist.snapshot.batch-size:1000}")
+	private int batchSize;
+	@Value("${todolist.snapshot.fetch-size:1000}")
+	private int fetchSize;
+	@Value("${todolist.snapshot.interval-ms:0}")
+	private long intervalMs;
+	@Value("${todolist.snapshot.export-on-shutdown:true}")
+	private boolean exportOnShutdown;
+
+	private final DescriptionConverter descriptionConverter = new DescriptionConverter();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Restores the snapshot once the schema exists, before the application starts serving requests
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		Path file = Paths.get(path);
+		if (Files.exists(file)) {
+			restore(file);
+		}
+		if (intervalMs > 0) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "snapshot-export");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(() -> {
+				try {
+					export(file);
+				} catch (RuntimeException e) {
+					LOG.error("Snapshot export failed", e);
+				}
+			}, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		if (exportOnShutdown) {
+			export(Paths.get(path));
+		}
+	}
+
+	/**
+	 * Writes all lists and entries to a temporary file next to the target, which then atomically
+	 * replaces it, so a crash while exporting keeps the previous snapshot
+	 */
+	public synchronized void export(Path file) {
+		long start = System.nanoTime();
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		// lists and entries are read by two queries that must agree with each other
+		transaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		try {
+			if (file.toAbsolutePath().getParent() != null) {
+				Files.createDirectories(file.toAbsolutePath().getParent());
+			}
+			SnapshotWriter writer;
+			try (SnapshotWriter snapshot = new SnapshotWriter(temporary, compress)) {
+				// every shard writes its lists before their entries, as the restore expects
+				shards.forEach(() -> transaction.execute(status -> {
+					jdbcTemplate.query(fetching("select id, version, name from lists"), rs -> {
+						try {
+							snapshot.writeList(rs.getLong(1), rs.getLong(2), rs.getString(3));
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+					jdbcTemplate.query(fetching("select id, list_id, description from entries"), rs -> {
+						try {
+							snapshot.writeEntry(rs.getLong(1), rs.getLong(2),
+									descriptionConverter.convertToEntityAttribute(rs.getBytes(3)));
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+					return null;
+				}));
+				writer = snapshot;
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOG.info("Exported {} lists and {} entries to {} in {} ms", writer.getLists(), writer.getEntries(), file,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} catch (IOException | UncheckedIOException e) {
+			throw new SnapshotException("Could not export snapshot to " + file, e);
+		}
+	}
+
+	/**
+	 * Loads the snapshot into every shard that has no lists yet, in a single transaction per shard. Ids
+	 * created afterwards are newer than the restored ones, see {@link SnowflakeIdGenerator}. Returns the
+	 * number of restored lists.
+	 */
+	public long restore(Path file) {
+		long start = System.nanoTime();
+		long[] restored = new long[2];
+		try {
+			// one pass over the file per shard, each inserting the lists it owns and their entries
+			shards.forEach(() -> {
+				long[] shardRestored = restoreShard(file);
+				restored[0] += shardRestored[0];
+				restored[1] += shardRestored[1];
+			});
+		} catch (UncheckedIOException e) {
+			throw new SnapshotException("Could not restore snapshot from " + file, e.getCause());
+		}
+		LOG.info("Restored {} lists and {} entries from {} in {} ms", restored[0], restored[1], file,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return restored[0];
+	}
+
+	/**
+	 * Restores the lists of the selected shard, returns the number of restored lists and entries
+	 */
+	private long[] restoreShard(Path file) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		return transaction.execute(status -> {
+			if (jdbcTemplate.queryForObject("select count(*) from lists", Long.class) > 0) {
+				LOG.warn("Database is not empty, snapshot {} is not restored", file);
+				return new long[2];
+			}
+			Batch lists = new Batch("insert into lists (id, version, name) values (?, ?, ?)");
+			Batch entries = new Batch("insert into entries (id, list_id, description, preview, description_length)"
+					+ " values (?, ?, ?, ?, ?)");
+			try (SnapshotReader reader = new SnapshotReader(file)) {
+				reader.read(new SnapshotReader.Visitor() {
+					@Override
+					public void list(long id, long version, String name) {
+						if (shards.owns(id)) {
+							lists.add(id, version, name);
+						}
+					}
+
+					@Override
+					public void entry(long id, long listId, String description) {
+						if (shards.owns(listId)) {
+							lists.flush();
+							entries.add(id, listId, descriptionConverter.convertToDatabaseColumn(description),
+									ToDoEntrySummary.preview(description), description == null ? 0 : description.length());
+						}
+					}
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			lists.flush();
+			entries.flush();
+			return new long[] { lists.count, entries.count };
+		});
+	}
+
+	private PreparedStatementCreator fetching(String sql) {
+		return connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql);
+			statement.setFetchSize(fetchSize);
+			return statement;
+		};
+	}
+
+	/**
+	 * Rows of one insert statement, sent to the database in JDBC batches of todolist.snapshot.batch-size
+	 */
+	private class Batch {
+
+		private final String sql;
+
+		private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+		private long count;
+
+		Batch(String sql) {
+			this.sql = sql;
+		}
+
+		void add(long id, Object... values) {
+			Object[] row = new Object[values.length + 1];
+			row[0] = id;
+			System.arraycopy(values, 0, row, 1, values.length);
+			rows.add(row);
+			count++;
+			if (rows.size() == batchSize) {
+				flush();
+			}
+		}
+
+		void flush() {
+			if (!rows.isEmpty()) {
+				jdbcTemplate.batchUpdate(sql, rows);
+				rows.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.todolist.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes lists and entries to a snapshot file in {@link SnapshotFormat}, through one direct buffer
+ * that is handed to the file channel whenever it fills up. A list must be written before its entries.
+ */
+public class SnapshotWriter implements Closeable {
+
+	private final FileChannel file;
+
+	private final GZIPOutputStream gzip;
+
+	private final WritableByteChannel body;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(SnapshotFormat.BUFFER_SIZE);
+
+	private long lists;
+
+	private long entries;
+
+	public SnapshotWriter(Path path, boolean compress) throws IOException {
+		file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		buffer.putInt(SnapshotFormat.MAGIC).putShort(SnapshotFormat.VERSION)
+			.put(compress ? SnapshotFormat.GZIP : SnapshotFormat.UNCOMPRESSED);
+		drain(file);
+		gzip = compress ? new GZIPOutputStream(Channels.newOutputStream(file), SnapshotFormat.BUFFER_SIZE) : null;
+		body = compress ? Channels.newChannel(gzip) : file;
+	}
+
+	public void writeList(long id, long version, String name) throws IOException {
+		byte[] bytes = bytes(name);
+		ensure(1 + 8 + 8 + 4 + length(bytes));
+		buffer.put(SnapshotFormat.LIST).putLong(id).putLong(version);
+		putBytes(bytes);
+		lists++;
+	}
+
+	public void writeEntry(long id, long listId, String description) throws IOException {
+		byte[] bytes = bytes(description);
+		ensure(1 + 8 + 8 + 4 + length(bytes));
+		buffer.put(SnapshotFormat.ENTRY).putLong(id).putLong(listId);
+		putBytes(bytes);
+		entries++;
+	}
+
+	public long getLists() {
+		return lists;
+	}
+
+	public long getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Writes the end record and forces the file to disk
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			ensure(1 + 8 + 8);
+			buffer.put(SnapshotFormat.END).putLong(lists).putLong(entries);
+			drain(body);
+			if (gzip != null) {
+				// writes the rest of the compressed data and the trailer, leaving the file open
+				gzip.finish();
+			}
+			file.force(true);
+		} finally {
+			file.close();
+		}
+	}
+
+	private void ensure(int size) throws IOException {
+		if (buffer.remaining() < size) {
+			drain(body);
+			if (buffer.capacity() < size) {
+				throw new IOException("Record of " + size + " bytes exceeds the snapshot buffer");
+			}
+		}
+	}
+
+	private void drain(WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void putBytes(byte[] bytes) {
+		if (bytes == null) {
+			buffer.putInt(-1);
+		} else {
+			buffer.putInt(bytes.length).put(bytes);
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int length(byte[] bytes) {
+		return bytes == null ? 0 : bytes.length;
+	}
+}
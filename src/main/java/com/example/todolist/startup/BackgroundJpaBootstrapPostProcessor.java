@@ -0,0 +1,52 @@
+package com.example.todolist.startup;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Builds the Hibernate session factory, including the metamodel and the schema, on a background thread
+ * while the web server and the other beans are set up. The entity manager factory is a proxy meanwhile,
+ * callers that need Hibernate, like the first repository or transaction, wait for the build.
+ * <p>
+ * The build is started when the web server factory is created, the first bean of the refresh after
+ * all post processors are registered, instead of when the first repository is needed.
+ */
+public class BackgroundJpaBootstrapPostProcessor extends InstantiationAwareBeanPostProcessorAdapter
+		implements BeanFactoryAware {
+
+	private ListableBeanFactory beanFactory;
+
+	private boolean started;
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = (ListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+		if (!started && EmbeddedServletContainerFactory.class.isAssignableFrom(beanClass)) {
+			started = true;
+			beanFactory.getBeansOfType(EntityManagerFactory.class);
+		}
+		return null;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+		if (bean instanceof AbstractEntityManagerFactoryBean) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("jpa-bootstrap-");
+			executor.setDaemon(true);
+			((AbstractEntityManagerFactoryBean) bean).setBootstrapExecutor(executor);
+		}
+		return bean;
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.todolist.startup;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Makes singletons lazy, so beans no request path or startup task needs, e.g. most actuator endpoints,
+ * are never created, and the others only when first used. Infrastructure beans and beans whose work is
+ * triggered by the container rather than by being used stay eager: {@link SmartInitializingSingleton}
+ * such as the snapshot restore and {@link SmartLifecycle}.
+ * <p>
+ * Types are read from the bean definitions without loading the beans, definitions whose type is only
+ * known after instantiation, e.g. factory beans, are made lazy.
+ */
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+	private static final Class<?>[] EAGER_TYPES = { SmartInitializingSingleton.class, SmartLifecycle.class };
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+			if (definition.isSingleton() && definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+					&& !isEager(typeName(definition), beanFactory.getBeanClassLoader())) {
+				definition.setLazyInit(true);
+			}
+		}
+	}
+
+	private static String typeName(BeanDefinition definition) {
+		if (definition instanceof AnnotatedBeanDefinition) {
+			MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+			if (factoryMethod != null) {
+				return factoryMethod.getReturnTypeName();
+			}
+		}
+		return definition.getBeanClassName();
+	}
+
+	private static boolean isEager(String typeName, ClassLoader classLoader) {
+		if (typeName == null || !ClassUtils.isPresent(typeName, classLoader)) {
+			return false;
+		}
+		Class<?> type = ClassUtils.resolveClassName(typeName, classLoader);
+		for (Class<?> eagerType : EAGER_TYPES) {
+			if (eagerType.isAssignableFrom(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,200 @@
+package com.example.todolist.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Measures the phases of a start from the JVM launch to the application accepting requests, logs them
+ * with the slowest beans once the application is ready and publishes them as the
+ * todolist.startup.duration gauge, tagged with the phase. Registered in META-INF/spring.factories, so it
+ * sees the events published before the context exists. Disabled with todolist.startup.report=false.
+ * <p>
+ * Phases:
+ * <ul>
+ * <li>jvm - JVM launch until SpringApplication.run, i.e. class loading of the launcher and main class</li>
+ * <li>environment - reading the configuration</li>
+ * <li>context - creating and preparing the context</li>
+ * <li>bean-definitions - component scanning and auto-configuration conditions</li>
+ * <li>beans - web server setup and creation of all eager singletons</li>
+ * <li>indexes - refresh listeners such as the search index rebuilds, and starting the web server</li>
+ * <li>ready - runners until the application reports ready</li>
+ * </ul>
+ */
+public class StartupTimeline implements ApplicationListener<ApplicationEvent>, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(StartupTimeline.class);
+
+	public static final String REPORT_PROPERTY = "todolist.startup.report";
+
+	private static final int SLOWEST_BEANS = 5;
+
+	/**
+	 * End of each phase in nanoseconds of {@link System#nanoTime()}, in order
+	 */
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	private final long jvmStart;
+
+	private boolean enabled = true;
+
+	private volatile Map<String, Long> reported;
+
+	private BeanTimer beanTimer;
+
+	public StartupTimeline() {
+		long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+		jvmStart = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(uptimeMillis);
+	}
+
+	@Override
+	public int getOrder() {
+		// ahead of the refresh listeners that are timed as the next phase
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (!enabled) {
+			return;
+		}
+		if (event instanceof ApplicationStartingEvent) {
+			mark("jvm");
+		} else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+			enabled = ((ApplicationEnvironmentPreparedEvent) event).getEnvironment()
+					.getProperty(REPORT_PROPERTY, Boolean.class, true);
+			mark("environment");
+		} else if (event instanceof ApplicationPreparedEvent) {
+			mark("context");
+			((ApplicationPreparedEvent) event).getApplicationContext().addBeanFactoryPostProcessor(new PhaseMarker());
+		} else if (event instanceof ContextRefreshedEvent && phases.containsKey("bean-definitions")
+				&& !phases.containsKey("beans")) {
+			mark("beans");
+		} else if (event instanceof EmbeddedServletContainerInitializedEvent) {
+			mark("indexes");
+		} else if (event instanceof ApplicationReadyEvent) {
+			mark("ready");
+			report((ApplicationReadyEvent) event);
+			enabled = false;
+		}
+	}
+
+	private synchronized void mark(String phase) {
+		phases.putIfAbsent(phase, System.nanoTime());
+	}
+
+	/**
+	 * Milliseconds spent in each phase, in order
+	 */
+	synchronized Map<String, Long> durations() {
+		Map<String, Long> durations = new LinkedHashMap<>();
+		long previous = jvmStart;
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			durations.put(phase.getKey(), TimeUnit.NANOSECONDS.toMillis(phase.getValue() - previous));
+			previous = phase.getValue();
+		}
+		return durations;
+	}
+
+	private void report(ApplicationReadyEvent event) {
+		Map<String, Long> durations = durations();
+		long total = durations.values().stream().mapToLong(Long::longValue).sum();
+		LOG.info("Started in {} ms: {}", total, durations.entrySet().stream()
+				.map(phase -> phase.getKey() + " " + phase.getValue())
+				.collect(Collectors.joining(", ")));
+		if (beanTimer != null) {
+			LOG.info("Slowest beans, including their dependencies: {}", beanTimer.slowest(SLOWEST_BEANS));
+		}
+
+		reported = durations;
+		reported.put("total", total);
+		if (event.getApplicationContext().getBeanNamesForType(MeterRegistry.class).length > 0) {
+			MeterRegistry registry = event.getApplicationContext().getBean(MeterRegistry.class);
+			for (String phase : reported.keySet()) {
+				// the gauge only holds a weak reference, the context keeps this listener alive
+				Gauge.builder("todolist.startup.duration", this, timeline -> timeline.reported.get(phase))
+						.tag("phase", phase)
+						.baseUnit("milliseconds")
+						.register(registry);
+			}
+		}
+	}
+
+	/**
+	 * Marks the end of bean definition loading, which runs after the registry post processors such as
+	 * the configuration class parser, and installs the {@link BeanTimer}
+	 */
+	private class PhaseMarker implements BeanDefinitionRegistryPostProcessor {
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+			mark("bean-definitions");
+			beanTimer = new BeanTimer();
+			beanFactory.addBeanPostProcessor(beanTimer);
+		}
+	}
+
+	/**
+	 * Time from instantiation to the end of initialization of every bean. Beans created while creating
+	 * another one count towards both.
+	 */
+	static class BeanTimer extends InstantiationAwareBeanPostProcessorAdapter {
+
+		private final Map<String, Long> started = new ConcurrentHashMap<>();
+
+		private final Map<String, Long> elapsed = new ConcurrentHashMap<>();
+
+		@Override
+		public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+			started.put(beanName, System.nanoTime());
+			return null;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+			Long start = started.remove(beanName);
+			if (start != null) {
+				elapsed.put(beanName, System.nanoTime() - start);
+			}
+			return bean;
+		}
+
+		String slowest(int count) {
+			List<Map.Entry<String, Long>> beans = new ArrayList<>(elapsed.entrySet());
+			beans.sort(Map.Entry.<String, Long> comparingByValue(Comparator.reverseOrder()));
+			return beans.stream().limit(count)
+					.map(bean -> bean.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(bean.getValue()) + " ms")
+					.collect(Collectors.joining(", "));
+		}
+	}
+}
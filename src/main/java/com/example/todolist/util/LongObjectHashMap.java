@@ -0,0 +1,191 @@
+package com.example.todolist.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys to non-null values, with open addressing and linear probing, so
+ * lookups neither box the key nor allocate entry objects. Not thread-safe.
+ */
+public class LongObjectHashMap<V> {
+
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private long[] keys;
+
+	/**
+	 * A null value marks a free slot
+	 */
+	private Object[] values;
+
+	private int mask;
+
+	private int resizeAt;
+
+	private int size;
+
+	public LongObjectHashMap() {
+		this(16);
+	}
+
+	public LongObjectHashMap(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Spreads the bits of the key, the upper bits of the result are as well mixed as the lower ones
+	 */
+	public static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Maps the key to the value, returns the value it was mapped to before or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Null values are not supported");
+		}
+		int slot = hash(key) & mask;
+		for (; values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				V previous = (V) values[slot];
+				values[slot] = value;
+				return previous;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt) {
+			rehash(values.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping of the key, returns the value it was mapped to or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				V previous = (V) values[slot];
+				size--;
+				shiftBack(slot);
+				return previous;
+			}
+		}
+		return null;
+	}
+
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Keys in no particular order
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int i = 0;
+		for (int slot = 0; slot < values.length; slot++) {
+			if (values[slot] != null) {
+				result[i++] = keys[slot];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Calls the action for every mapping in no particular order. The map must not be changed meanwhile.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super V> action) {
+		for (int slot = 0; slot < values.length; slot++) {
+			if (values[slot] != null) {
+				action.accept(keys[slot], (V) values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Closes the gap left by a removed mapping by moving back the following mappings of the same
+	 * probe sequence, so lookups need no tombstones
+	 */
+	private void shiftBack(int gap) {
+		for (int slot = (gap + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+			int ideal = hash(keys[slot]) & mask;
+			boolean movable = gap <= slot ? ideal <= gap || ideal > slot : ideal <= gap && ideal > slot;
+			if (movable) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		values[gap] = null;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = 4;
+		while (capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Action on a mapping, taking the key without boxing it
+	 */
+	@FunctionalInterface
+	public interface Consumer<V> {
+
+		void accept(long key, V value);
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.todolist.web;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Lets the container apply server.compression.min-response-size to JSON responses. The container only
+ * knows the length of a response, and so skips compressing a small one, if the whole body is buffered
+ * when the response completes. Message converters flush after writing the body, which commits it
+ * with an unknown length, and the container then compresses even a few bytes. This filter ignores
+ * flushes until the body has reached the threshold, later ones, e.g. of streamed responses, pass.
+ */
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+	private final int minResponseSize;
+
+	public CompressionThresholdFilter(int minResponseSize) {
+		this.minResponseSize = minResponseSize;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+			chain.doFilter(request, response);
+			return;
+		}
+		chain.doFilter(request, new HttpServletResponseWrapper(response) {
+
+			private ServletOutputStream outputStream;
+
+			@Override
+			public ServletOutputStream getOutputStream() throws IOException {
+				if (outputStream == null) {
+					outputStream = new ThresholdOutputStream(super.getOutputStream());
+				}
+				return outputStream;
+			}
+		});
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		// the async result is written during the async dispatch
+		return false;
+	}
+
+	private class ThresholdOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream delegate;
+
+		private long written;
+
+		ThresholdOutputStream(ServletOutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			written++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			written += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (written >= minResponseSize) {
+				delegate.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.todolist.web;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.shard.Shards;
+
+/**
+ * Weak ETags and If-None-Match handling for GET /api, GET /api/{listId} and GET /api/{listId}/entries,
+ * answered from version counters before the controller runs, so a 304 never loads lists or entries.
+ * The tags are weak as the gzip and identity encodings and the JSON, CBOR, Smile and NDJSON bodies of
+ * one version are not byte for byte the same.
+ * <p>
+ * The version is read before the data. A write committed in between makes the body newer than its
+ * ETag, which only costs the client one more full download.
+ */
+public class ConditionalGetInterceptor extends HandlerInterceptorAdapter {
+
+	static final String LISTS_PATTERN = "/api";
+	static final String LIST_ENTRIES_PATTERN = "/api/{listId}";
+	static final String LIST_ENTRY_SUMMARIES_PATTERN = "/api/{listId}/entries";
+
+	private final ListRepository listRepository;
+
+	private final ListsVersion listsVersion;
+
+	private final Shards shards;
+
+	public ConditionalGetInterceptor(ListRepository listRepository, ListsVersion listsVersion, Shards shards) {
+		this.listRepository = listRepository;
+		this.listsVersion = listsVersion;
+		this.shards = shards;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!"GET".equals(request.getMethod())) {
+			return true;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String etag;
+		if (LISTS_PATTERN.equals(pattern)) {
+			etag = "W/\"" + listsVersion.getEpoch() + "-" + listsVersion.current() + "\"";
+		} else if (LIST_ENTRIES_PATTERN.equals(pattern) || LIST_ENTRY_SUMMARIES_PATTERN.equals(pattern)) {
+			Long version = findListVersion(request);
+			if (version == null) {
+				// unknown list, let the controller answer 404
+				return true;
+			}
+			etag = "W/\"" + version + "\"";
+		} else {
+			return true;
+		}
+		// JSON, CBOR, Smile and NDJSON representations share the version
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		return !new ServletWebRequest(request, response).checkNotModified(etag);
+	}
+
+	private Long findListVersion(HttpServletRequest request) {
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		try {
+			Long listId = Long.valueOf(variables.get("listId"));
+			return shards.callFor(listId, () -> listRepository.findVersionById(listId));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.todolist.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.example.todolist.util.AfterCommit;
+
+/**
+ * Version of the collection of all lists, increased by every write to any list or entry. The counter
+ * lives in memory, so it is combined with an epoch that changes on every start.
+ */
+@Component
+public class ListsVersion {
+
+	private final long epoch = System.currentTimeMillis();
+
+	private final AtomicLong version = new AtomicLong();
+
+	public long getEpoch() {
+		return epoch;
+	}
+
+	public long current() {
+		return version.get();
+	}
+
+	/**
+	 * Increases the version once the current transaction commits, or right away outside of one. Bumping
+	 * before commit would let readers tag data that does not contain the change with the new version.
+	 */
+	public void increment() {
+		AfterCommit.run(version::incrementAndGet);
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.todolist.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Reads and writes CBOR (RFC 7049) with Jackson, using the same serializers as JSON. Spring 5 ships an
+ * equivalent converter, this one can be replaced by it after upgrading.
+ */
+public class MappingJackson2CborHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+	public static final MediaType APPLICATION_CBOR = MediaType.valueOf(APPLICATION_CBOR_VALUE);
+
+	/**
+	 * @param objectMapper mapper created with a {@link CBORFactory}
+	 */
+	public MappingJackson2CborHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper, APPLICATION_CBOR);
+		Assert.isInstanceOf(CBORFactory.class, objectMapper.getFactory(), "CBORFactory required");
+		// binary, a charset parameter would be meaningless
+		setDefaultCharset(null);
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.todolist.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Reads and writes Smile, Jackson's binary JSON, using the same serializers as JSON. Spring 5 ships an
+ * equivalent converter, this one can be replaced by it after upgrading.
+ */
+public class MappingJackson2SmileHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+	/**
+	 * @param objectMapper mapper created with a {@link SmileFactory}
+	 */
+	public MappingJackson2SmileHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper, APPLICATION_SMILE);
+		Assert.isInstanceOf(SmileFactory.class, objectMapper.getFactory(), "SmileFactory required");
+		// binary, a charset parameter would be meaningless
+		setDefaultCharset(null);
+	}
+}
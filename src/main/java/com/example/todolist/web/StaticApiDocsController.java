@@ -0,0 +1,69 @@
+package com.example.todolist.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.todolist.exceptions.NotFoundException;
+
+/**
+ * Serves the Swagger spec generated at build time by the generateApiDocs task, together with the
+ * resources swagger-ui.html asks for, so Springfox is never initialized. Returns 404 for the spec if
+ * the application was started without generating it, e.g. from the IDE.
+ */
+@RestController
+@ConditionalOnProperty(name = "todolist.api-docs.mode", havingValue = "static", matchIfMissing = true)
+public class StaticApiDocsController {
+
+	static final String API_DOCS_PATH = "/v2/api-docs";
+
+	@Value("${todolist.api-docs.location:classpath:api-docs.json}")
+	private Resource location;
+
+	private volatile byte[] apiDocs;
+
+	@GetMapping(value = API_DOCS_PATH, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public byte[] getApiDocs() throws IOException {
+		byte[] docs = apiDocs;
+		if (docs == null) {
+			if (!location.exists()) {
+				throw new NotFoundException();
+			}
+			try (InputStream in = location.getInputStream()) {
+				docs = StreamUtils.copyToByteArray(in);
+			}
+			apiDocs = docs;
+		}
+		return docs;
+	}
+
+	@GetMapping(value = "/swagger-resources", produces = MediaType.APPLICATION_JSON_VALUE)
+	public List<Map<String, String>> getSwaggerResources() {
+		Map<String, String> resource = new HashMap<>();
+		resource.put("name", "default");
+		resource.put("url", API_DOCS_PATH);
+		resource.put("location", API_DOCS_PATH);
+		resource.put("swaggerVersion", "2.0");
+		return Collections.singletonList(resource);
+	}
+
+	/**
+	 * Empty UI and security configuration, swagger-ui falls back to its defaults
+	 */
+	@GetMapping(value = { "/swagger-resources/configuration/ui", "/swagger-resources/configuration/security" },
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public Map<String, Object> getSwaggerConfiguration() {
+		return Collections.emptyMap();
+	}
+}
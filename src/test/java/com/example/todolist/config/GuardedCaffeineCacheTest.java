@@ -0,0 +1,93 @@
+package com.example.todolist.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class GuardedCaffeineCacheTest {
+
+	private GuardedCaffeineCache cache;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		cache = new GuardedCaffeineCache("test", Caffeine.newBuilder().build());
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void readThenPutTest() {
+		assertNull(cache.get(1L));
+		cache.put(1L, 7L);
+
+		assertEquals(7L, cache.get(1L).get());
+	}
+
+	@Test
+	public void nullValueTest() {
+		assertNull(cache.get(1L));
+		cache.put(1L, null);
+
+		assertNull(cache.get(1L).get());
+	}
+
+	@Test
+	public void putAfterEvictionIsDroppedTest() {
+		// the reader misses and loads version 1, the writer commits version 2 and evicts, then the reader puts
+		assertNull(cache.get(1L));
+		cache.evict(1L);
+		cache.put(1L, 1L);
+
+		assertNull(cache.get(1L));
+		cache.put(1L, 2L);
+		assertEquals(2L, cache.get(1L).get());
+	}
+
+	@Test
+	public void putAfterClearIsDroppedTest() {
+		assertNull(cache.get(1L));
+		cache.clear();
+		cache.put(1L, 1L);
+
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	public void putWithoutReadIsDroppedTest() {
+		cache.put(1L, 1L);
+
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	public void concurrentReaderDoesNotOverwriteTest() throws Exception {
+		// the other thread's miss is older, its placeholder is not taken over
+		executor.submit(() -> cache.get(1L)).get();
+		assertNull(cache.get(1L));
+		cache.put(1L, 1L);
+		assertNull(cache.get(1L));
+
+		executor.submit(() -> cache.put(1L, 2L)).get();
+		assertEquals(2L, cache.get(1L).get());
+	}
+
+	@Test
+	public void valueLoaderTest() {
+		assertEquals(Long.valueOf(3L), cache.get(1L, () -> 3L));
+		assertEquals(Long.valueOf(3L), cache.get(1L, () -> 4L));
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.todolist.controller;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "todolist.async.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AsyncToDoListApiControllerIntegrationTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	private Long listId;
+
+	@Before
+	public void setUp() {
+		ToDoList list = new ToDoList();
+		list.setName("async list");
+		listId = listRepository.save(list).getId();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private MvcResult started(RequestBuilder request) throws Exception {
+		return mvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+	}
+
+	@Test
+	public void createAndReadEntryTest() throws Exception {
+		mvc.perform(asyncDispatch(started(post("/api/async/" + listId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"async entry\"}"))))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.description").value("async entry"));
+
+		mvc.perform(asyncDispatch(started(get("/api/async/" + listId))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void getListsTest() throws Exception {
+		mvc.perform(asyncDispatch(started(get("/api/async"))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void notFoundTest() throws Exception {
+		mvc.perform(asyncDispatch(started(get("/api/async/" + (listId + 1000)))))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void syncEndpointsUnchangedTest() throws Exception {
+		mvc.perform(get("/api/" + listId))
+			.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.todolist.controller;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.todolist.exceptions.NotFoundException;
+import com.example.todolist.exceptions.ServiceUnavailableException;
+import com.example.todolist.model.ToDoEntry;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncToDoListApiControllerTest {
+	@Mock
+	private ToDoListApiController controller;
+
+	private AsyncToDoListApiController asyncController;
+
+	@Before
+	public void setUp() {
+		asyncController = new AsyncToDoListApiController();
+		ReflectionTestUtils.setField(asyncController, "controller", controller);
+		ReflectionTestUtils.setField(asyncController, "readExecutor", new TaskExecutorAdapter(Runnable::run));
+		ReflectionTestUtils.setField(asyncController, "writeExecutor", new TaskExecutorAdapter(Runnable::run));
+		ReflectionTestUtils.setField(asyncController, "timeout", 1000L);
+	}
+
+	@Test
+	public void getListEntriesTest() {
+		Collection<ToDoEntry> entries = new ArrayList<>();
+		when(controller.getListEntries(1L)).thenReturn(entries);
+
+		DeferredResult<Collection<ToDoEntry>> result = asyncController.getListEntries(1L);
+
+		assertSame(entries, result.getResult());
+	}
+
+	@Test
+	public void getListEntriesNotFoundTest() {
+		when(controller.getListEntries(1L)).thenThrow(new NotFoundException());
+
+		DeferredResult<Collection<ToDoEntry>> result = asyncController.getListEntries(1L);
+
+		assertTrue(result.getResult() instanceof NotFoundException);
+	}
+
+	@Test
+	public void rejectedWhenQueueIsFullTest() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(0);
+		executor.initialize();
+		ReflectionTestUtils.setField(asyncController, "writeExecutor", executor);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		started.await();
+
+		try {
+			DeferredResult<ToDoEntry> result = asyncController.deleteEntry(1L, 2L);
+
+			assertTrue(result.getResult() instanceof ServiceUnavailableException);
+			verify(controller, never()).deleteEntry(1L, 2L);
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+}
@@ -2,24 +2,46 @@ package com.example.todolist.controller;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
+import javax.persistence.EntityManager;
+
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.example.todolist.exceptions.DataIntegrationViolationException;
 import com.example.todolist.exceptions.NotFoundException;
+import com.example.todolist.model.BulkEntryReport;
 import com.example.todolist.model.ToDoEntry;
 import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
 import com.example.todolist.repository.EntryRepository;
 import com.example.todolist.repository.ListRepository;
+import com.example.todolist.search.EntryIndex;
+import com.example.todolist.search.ListNameIndex;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.web.ListsVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ToDoListApiControllerMethodsTest {
@@ -29,16 +51,75 @@ public class ToDoListApiControllerMethodsTest {
 	@Mock
 	private EntryRepository entryRepository;
 
+	@Mock
+	private ListsVersion listsVersion;
+
+	@Mock
+	private EntryIndex entryIndex;
+
+	@Mock
+	private ListNameIndex listNameIndex;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@Spy
+	private Shards shards = Shards.single();
+
 	@InjectMocks
 	private ToDoListApiController toDoListApiController;
 
 	@Test
 	public void getListTest() {
-		when(listRepository.findAll()).thenReturn(new ArrayList<ToDoList>());
+		when(listRepository.findAllWithEntries()).thenReturn(new ArrayList<ToDoList>());
 
 		assertNotNull(toDoListApiController.getLists());
 	}
 
+	@Test
+	public void getListSummariesTest() {
+		List<ToDoListSummary> summaries = new ArrayList<>();
+		summaries.add(new ToDoListSummary(6L, "list 6", 3));
+		when(listRepository.findSummariesAfter(eq(5L), any(Pageable.class))).thenReturn(summaries);
+
+		Collection<ToDoListSummary> result = toDoListApiController.getListSummaries(5L, 20);
+
+		assertEquals(1, result.size());
+		ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+		verify(listRepository).findSummariesAfter(eq(5L), page.capture());
+		assertEquals(0, page.getValue().getPageNumber());
+		assertEquals(20, page.getValue().getPageSize());
+	}
+
+	@Test
+	public void getListSummariesCapsLimitTest() {
+		toDoListApiController.getListSummaries(0L, ToDoListApiController.MAX_PAGE_SIZE + 1);
+
+		ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+		verify(listRepository).findSummariesAfter(eq(0L), page.capture());
+		assertEquals(ToDoListApiController.MAX_PAGE_SIZE, page.getValue().getPageSize());
+	}
+
+	@Test(expected = DataIntegrationViolationException.class)
+	public void getListSummariesFailLimitTest() {
+		toDoListApiController.getListSummaries(0L, 0);
+	}
+
+	@Test
+	public void suggestListsCapsLimitTest() {
+		toDoListApiController.suggestLists("gro", ToDoListApiController.MAX_SUGGESTIONS + 1);
+
+		verify(listNameIndex).suggest("gro", ToDoListApiController.MAX_SUGGESTIONS);
+	}
+
+	@Test(expected = DataIntegrationViolationException.class)
+	public void suggestListsFailLimitTest() {
+		toDoListApiController.suggestLists("gro", 0);
+	}
+
 	@Test
 	public void getListEntryOkTest() {
 		when(listRepository.exists(1L)).thenReturn(true);
@@ -56,6 +137,35 @@ public class ToDoListApiControllerMethodsTest {
 		toDoListApiController.getListEntries(1L);
 	}
 
+	@Test
+	public void streamListEntriesOkTest() throws Exception {
+		ToDoEntry first = new ToDoEntry();
+		first.setId(1L);
+		first.setDescription("first");
+		ToDoEntry second = new ToDoEntry();
+		second.setId(2L);
+		second.setDescription("second");
+
+		when(listRepository.exists(1L)).thenReturn(true);
+		when(entryRepository.streamAllByListId(1L)).thenReturn(Arrays.asList(first, second).stream());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		toDoListApiController.streamListEntries(1L, response);
+
+		assertEquals(ToDoListApiController.APPLICATION_NDJSON_VALUE, response.getContentType());
+		assertEquals("{\"id\":1,\"description\":\"first\"}\n{\"id\":2,\"description\":\"second\"}\n",
+				response.getContentAsString());
+		verify(entityManager).detach(first);
+		verify(entityManager).detach(second);
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void streamListEntriesFailTest() throws Exception {
+		when(listRepository.exists(1L)).thenReturn(false);
+
+		toDoListApiController.streamListEntries(1L, new MockHttpServletResponse());
+	}
+
 	@Test
 	public void createListOkTest() {
 		ToDoList list = new ToDoList();
@@ -64,7 +174,7 @@ public class ToDoListApiControllerMethodsTest {
 		element.setDescription("element 1");
 		list.addEntry(element);
 
-		when(listRepository.save(list)).thenReturn(list);
+		when(listRepository.insert(list)).thenReturn(list);
 
 		ToDoList result = toDoListApiController.createList(list);
 		assertNotNull(result);
@@ -82,7 +192,7 @@ public class ToDoListApiControllerMethodsTest {
 		element.setDescription("element 1");
 		list.addEntry(element);
 
-		when(listRepository.save(list)).thenThrow(DataIntegrationViolationException.class);
+		when(listRepository.insert(list)).thenThrow(DataIntegrationViolationException.class);
 
 		ToDoList result = toDoListApiController.createList(list);
 		assertNotNull(result);
@@ -107,6 +217,8 @@ public class ToDoListApiControllerMethodsTest {
 		assertNotNull(result);
 		assertEquals(list, result.getList());
 		assertEquals("element", result.getDescription());
+		verify(listRepository).incrementVersion(1L);
+		verify(listsVersion).increment();
 
 	}
 
@@ -141,101 +253,133 @@ public class ToDoListApiControllerMethodsTest {
 		toDoListApiController.createEntry(1L, entry);
 	}
 
+	@Test
+	public void createEntriesOkTest() {
+		ToDoEntry valid = new ToDoEntry();
+		valid.setDescription("element");
+		ToDoEntry missing = new ToDoEntry();
+		ToDoEntry tooLong = new ToDoEntry();
+		tooLong.setDescription(StringUtils.repeat('.', ToDoEntry.MAX_DESCRIPTION_LENGTH + 1));
+
+		when(listRepository.exists(1L)).thenReturn(true);
+
+		BulkEntryReport report = toDoListApiController.createEntries(1L, Arrays.asList(valid, missing, tooLong));
+
+		assertEquals(1, report.getCreated());
+		assertEquals(2, report.getRejected());
+		assertEquals(3, report.getItems().size());
+		verify(entryRepository).insertAll(eq(1L), any());
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void createEntriesFailNotFoundTest() {
+		when(listRepository.exists(1L)).thenReturn(false);
+
+		toDoListApiController.createEntries(1L, new ArrayList<ToDoEntry>());
+	}
+
+	@Test
+	public void createEntriesFromStreamOkTest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContent("{\"description\":\"first\"}\n{}\n{\"description\":\"third\"}\n".getBytes("UTF-8"));
+
+		when(listRepository.exists(1L)).thenReturn(true);
+
+		BulkEntryReport report = toDoListApiController.createEntriesFromStream(1L, request);
+
+		assertEquals(2, report.getCreated());
+		assertEquals(1, report.getRejected());
+		BulkEntryReport.Item rejected = report.getItems().get(0);
+		assertEquals(1, rejected.getIndex());
+		assertNull(rejected.getId());
+		assertNotNull(rejected.getError());
+	}
+
+	@Test(expected = DataIntegrationViolationException.class)
+	public void createEntriesFromStreamFailMalformedTest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContent("{\"description\":\"first\"}\n{\"description\":".getBytes("UTF-8"));
+
+		when(listRepository.exists(1L)).thenReturn(true);
+
+		toDoListApiController.createEntriesFromStream(1L, request);
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void createEntriesFromStreamFailNotFoundTest() throws Exception {
+		when(listRepository.exists(1L)).thenReturn(false);
+
+		toDoListApiController.createEntriesFromStream(1L, new MockHttpServletRequest());
+		verify(entryRepository, never()).insertAll(eq(1L), any());
+	}
+
 	@Test
 	public void deleteListOkTest() {
 		ToDoList list = new ToDoList();
 		list.setName("list 1");
 
-		when(listRepository.findOne(1L)).thenReturn(list);
+		when(listRepository.findOneWithEntries(1L)).thenReturn(list);
 
 		ToDoList result = toDoListApiController.deleteList(1L);
 
 		assertNotNull(result);
 		assertEquals("list 1", result.getName());
 		assertEquals(0, result.getEntries().size());
+		verify(entryRepository).bulkDeleteByListId(1L);
+		verify(listRepository).bulkDeleteById(1L);
 	}
 
 	@Test(expected = NotFoundException.class)
 	public void deleteListFailNotFoundTest() {
-		when(listRepository.findOne(2L)).thenReturn(null);
+		when(listRepository.findOneWithEntries(2L)).thenReturn(null);
 
 		toDoListApiController.deleteList(2L);
+		verify(listRepository, never()).bulkDeleteById(2L);
 	}
 
 	@Test
 	public void deleteEntryOkTest() {
-		ToDoList list = new ToDoList();
-		list.setName("list 1");
-		list.setId(1L);
+		when(entryRepository.bulkDeleteByIdAndListId(3L, 1L)).thenReturn(1);
 
-		when(listRepository.findOne(1L)).thenReturn(list);
-
-		ToDoEntry entry = new ToDoEntry();
-		entry.setDescription("element");
-		entry.setList(list);
-		entry.setId(3L);
-
-		when(entryRepository.findOne(1L)).thenReturn(entry);
-
-		ToDoEntry result = toDoListApiController.deleteEntry(1L, 1L);
+		ToDoEntry result = toDoListApiController.deleteEntry(1L, 3L);
 
 		assertNotNull(result);
-		assertEquals("element", result.getDescription());
+		assertEquals(Long.valueOf(3L), result.getId());
+		verify(listRepository, never()).exists(1L);
+		verify(listRepository).incrementVersion(1L);
+		verify(listsVersion).increment();
 	}
 
 	@Test(expected = NotFoundException.class)
 	public void deleteEntryFailNotFoundTest() {
-		when(listRepository.findOne(2L)).thenReturn(null);
-		when(entryRepository.findOne(2L)).thenReturn(null);
+		when(listRepository.exists(2L)).thenReturn(false);
+		when(entryRepository.exists(2L)).thenReturn(false);
 
 		toDoListApiController.deleteEntry(2L, 2L);
 	}
 
 	@Test(expected = NotFoundException.class)
 	public void deleteEntryFailNotFound1Test() {
-		when(listRepository.findOne(2L)).thenReturn(null);
-
-		ToDoEntry entry = new ToDoEntry();
-		entry.setDescription("element");
-
-		when(entryRepository.findOne(2L)).thenReturn(entry);
+		when(listRepository.exists(2L)).thenReturn(false);
+		when(entryRepository.exists(2L)).thenReturn(true);
 
 		toDoListApiController.deleteEntry(2L, 2L);
 	}
 
 	@Test(expected = NotFoundException.class)
 	public void deleteEntryFailNotFound2Test() {
-		ToDoList list = new ToDoList();
-		list.setName("list 1");
-
-		when(listRepository.findOne(2L)).thenReturn(list);
-		when(entryRepository.findOne(2L)).thenReturn(null);
+		when(listRepository.exists(2L)).thenReturn(true);
+		when(entryRepository.exists(2L)).thenReturn(false);
 
 		toDoListApiController.deleteEntry(2L, 2L);
 	}
 
 	@Test(expected = DataIntegrationViolationException.class)
 	public void deleteEntryFailDataIntegrationViolationTest() {
-		ToDoList list = new ToDoList();
-		list.setName("list 1");
-		list.setId(1L);
-
-		ToDoList list2 = new ToDoList();
-		list2.setName("list 12");
-		list2.setId(2L);
-
-		when(listRepository.findOne(2L)).thenReturn(list2);
-
-		ToDoEntry entry = new ToDoEntry();
-		entry.setDescription("element");
-		entry.setList(list);
-		entry.setId(3L);
-
-		when(entryRepository.findOne(1L)).thenReturn(entry);
+		when(entryRepository.bulkDeleteByIdAndListId(1L, 2L)).thenReturn(0);
+		when(listRepository.exists(2L)).thenReturn(true);
+		when(entryRepository.exists(1L)).thenReturn(true);
 
-		ToDoEntry result = toDoListApiController.deleteEntry(2L, 1L);
-
-		assertNotNull(result);
-		assertEquals("element", result.getDescription());
+		toDoListApiController.deleteEntry(2L, 1L);
 	}
 }
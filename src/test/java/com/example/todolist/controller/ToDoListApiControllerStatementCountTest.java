@@ -0,0 +1,320 @@
+package com.example.todolist.controller;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collection;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.config.CacheConfig;
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * Guards the number of SQL statements each endpoint issues, so N+1 loading regressions fail the build
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ToDoListApiControllerStatementCountTest {
+	private static final int LISTS = 5;
+	private static final int ENTRIES_PER_LIST = 3;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Statistics statistics;
+
+	private Long firstListId;
+
+	private Long secondListId;
+
+	@Before
+	public void setUp() {
+		for (int i = 0; i < LISTS; i++) {
+			ToDoList list = new ToDoList();
+			list.setName("list " + i);
+			for (int j = 0; j < ENTRIES_PER_LIST; j++) {
+				ToDoEntry entry = new ToDoEntry();
+				entry.setDescription("entry " + j);
+				entry.setList(list);
+				list.addEntry(entry);
+			}
+			ToDoList saved = listRepository.save(list);
+			if (firstListId == null) {
+				firstListId = saved.getId();
+			} else if (secondListId == null) {
+				secondListId = saved.getId();
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	@Test
+	public void getListsTest() throws Exception {
+		mvc.perform(get("/api"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(LISTS)))
+			.andExpect(jsonPath("$[0].entries", hasSize(ENTRIES_PER_LIST)));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void getListSummariesTest() throws Exception {
+		mvc.perform(get("/api?limit=10"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(LISTS)));
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void getListEntriesTest() throws Exception {
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST)));
+
+		// list version for the ETag, existence check and entries
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void getListEntriesCachedTest() throws Exception {
+		mvc.perform(get("/api/" + firstListId)).andExpect(status().isOk());
+		statistics.clear();
+
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST)));
+
+		// list version, existence and entries all come from the cache
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void getListEntriesAfterWritesTest() throws Exception {
+		mvc.perform(get("/api/" + firstListId)).andExpect(status().isOk());
+
+		mvc.perform(post("/api/" + firstListId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"new entry\"}"))
+			.andExpect(status().isCreated());
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST + 1)));
+
+		Long entryId = listRepository.findOneWithEntries(firstListId).getEntries().iterator().next().getId();
+		mvc.perform(delete("/api/" + entryId + "/" + firstListId)).andExpect(status().isOk());
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST)));
+
+		mvc.perform(delete("/api/" + firstListId)).andExpect(status().isOk());
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void createEntryWithIdOfAnotherListTest() throws Exception {
+		mvc.perform(get("/api/" + secondListId)).andExpect(status().isOk());
+		Long entryId = listRepository.findOneWithEntries(secondListId).getEntries().iterator().next().getId();
+
+		mvc.perform(post("/api/" + firstListId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"id\": " + entryId + ", \"description\": \"taken over\"}"))
+			.andExpect(status().isCreated());
+
+		mvc.perform(get("/api/" + secondListId))
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST)));
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST + 1)));
+		assertTrue(listRepository.findOneWithEntries(secondListId).getEntries().stream()
+				.anyMatch(entry -> entry.getId().equals(entryId) && !entry.getDescription().equals("taken over")));
+	}
+
+	@Test
+	public void entriesReadBeforeWriteAreNotCachedTest() throws Exception {
+		// a reader misses and loads the entries, a write commits and evicts, only then the reader puts
+		Cache cache = cacheManager.getCache(CacheConfig.LIST_ENTRIES);
+		assertNull(cache.get(firstListId));
+		Collection<ToDoEntry> stale = listRepository.findOneWithEntries(firstListId).getEntries();
+		mvc.perform(post("/api/" + firstListId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"new entry\"}"))
+			.andExpect(status().isCreated());
+		cache.put(firstListId, stale);
+
+		mvc.perform(get("/api/" + firstListId))
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST + 1)));
+	}
+
+	@Test
+	public void getListEntrySummariesTest() throws Exception {
+		mvc.perform(get("/api/" + firstListId + "/entries"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(ENTRIES_PER_LIST)))
+			.andExpect(jsonPath("$[0].preview", startsWith("entry ")));
+
+		// list version for the ETag, existence check and the projection
+		assertEquals(3, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	public void getEntryTest() throws Exception {
+		StringBuilder description = new StringBuilder();
+		for (int i = 0; description.length() < ToDoEntry.MAX_DESCRIPTION_LENGTH - 10; i++) {
+			description.append("line ").append(i).append('\n');
+		}
+		String created = mvc.perform(post("/api/" + firstListId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"" + description.toString().replace("\n", "\\n") + "\"}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		long entryId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+		mvc.perform(get("/api/" + firstListId + "/entries/" + entryId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.description", is(description.toString())));
+		mvc.perform(get("/api/" + firstListId + "/entries"))
+			.andExpect(jsonPath("$[?(@.id == " + entryId + ")].truncated", contains(true)));
+		mvc.perform(get("/api/" + (firstListId + 1) + "/entries/" + entryId))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void createListTest() throws Exception {
+		StringBuilder entries = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			entries.append(i == 0 ? "" : ",").append("{\"description\": \"entry ").append(i).append("\"}");
+		}
+
+		mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"new list\", \"entries\": [" + entries + "]}"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.entries", hasSize(10)));
+
+		// list insert plus one JDBC batch for the entries, ids need no statement
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void createEntriesTest() throws Exception {
+		StringBuilder entries = new StringBuilder("[");
+		for (int i = 0; i < 120; i++) {
+			entries.append(i == 0 ? "" : ",").append("{\"description\": \"bulk ").append(i).append("\"}");
+		}
+		entries.append("]");
+
+		mvc.perform(post("/api/" + firstListId + "/entries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(entries.toString()))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.created", is(120)));
+
+		// existence check, one JDBC batch per 50 inserts and the list version update
+		assertEquals(1 + 3 + 1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deleteEntryTest() throws Exception {
+		Long entryId = listRepository.findOneWithEntries(firstListId).getEntries().iterator().next().getId();
+		statistics.clear();
+
+		mvc.perform(delete("/api/" + entryId + "/" + firstListId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id", is(entryId)));
+
+		// the delete and the list version update
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deleteEntryFromOtherListTest() throws Exception {
+		Long entryId = listRepository.findOneWithEntries(firstListId).getEntries().iterator().next().getId();
+
+		mvc.perform(delete("/api/" + entryId + "/" + secondListId))
+			.andExpect(status().isBadRequest());
+		mvc.perform(delete("/api/" + entryId + "/" + (firstListId + 1000)))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void deleteListTest() throws Exception {
+		mvc.perform(delete("/api/" + firstListId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.entries", hasSize(ENTRIES_PER_LIST)));
+
+		// list with entries, entries bulk delete and list delete
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deleteLargeListTest() throws Exception {
+		ToDoList list = new ToDoList();
+		list.setName("large list");
+		for (int i = 0; i < 500; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription("entry " + i);
+			entry.setList(list);
+			list.addEntry(entry);
+		}
+		Long listId = listRepository.save(list).getId();
+		statistics.clear();
+
+		mvc.perform(delete("/api/" + listId))
+			.andExpect(status().isOk());
+
+		assertEquals(3, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityDeleteCount());
+	}
+}
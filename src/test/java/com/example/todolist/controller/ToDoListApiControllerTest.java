@@ -2,30 +2,54 @@ package com.example.todolist.controller;
 
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.todolist.exceptions.DataIntegrationViolationException;
 import com.example.todolist.exceptions.NotFoundException;
+import com.example.todolist.model.BulkEntryReport;
 import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoEntrySummary;
 import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.search.ListSuggestion;
+import com.example.todolist.shard.Shards;
+import com.example.todolist.web.ListsVersion;
+import com.example.todolist.web.MappingJackson2CborHttpMessageConverter;
+import com.example.todolist.web.MappingJackson2SmileHttpMessageConverter;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(ToDoListApiController.class)
@@ -36,6 +60,25 @@ public class ToDoListApiControllerTest {
 	@MockBean
 	private ToDoListApiController toDoListController;
 
+	@MockBean
+	private ListRepository listRepository;
+
+	@MockBean
+	private ListsVersion listsVersion;
+
+	@TestConfiguration
+	static class MetricsConfiguration {
+		@Bean
+		public MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		public Shards shards() {
+			return Shards.single();
+		}
+	}
+
 	@Test
 	public void getEmptyLitsTest() throws Exception {
 		List<ToDoList> lists = new ArrayList<>();
@@ -82,6 +125,35 @@ public class ToDoListApiControllerTest {
 			.andExpect(jsonPath("$[1].entries", hasSize(0)));
 	}
 	
+	@Test
+	public void getListSummariesTest() throws Exception {
+		List<ToDoListSummary> summaries = new ArrayList<>();
+		summaries.add(new ToDoListSummary(4L, "list 4", 2));
+		
+		given(toDoListController.getListSummaries(3L, 10)).willReturn(summaries);
+		
+		mvc.perform(get("/api?after=3&limit=10").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)))
+			.andExpect(jsonPath("$[0].id", is(4)))
+			.andExpect(jsonPath("$[0].name", is("list 4")))
+			.andExpect(jsonPath("$[0].entryCount", is(2)));
+	}
+	
+	@Test
+	public void suggestListsTest() throws Exception {
+		List<ListSuggestion> suggestions = new ArrayList<>();
+		suggestions.add(new ListSuggestion(4L, "Groceries"));
+		
+		given(toDoListController.suggestLists("gro", 5)).willReturn(suggestions);
+		
+		mvc.perform(get("/api/lists/suggest?prefix=gro&limit=5").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)))
+			.andExpect(jsonPath("$[0].id", is(4)))
+			.andExpect(jsonPath("$[0].name", is("Groceries")));
+	}
+	
 	@Test
 	public void getListByIdOkTest() throws Exception {
 		List<ToDoEntry> lists = new ArrayList<>();
@@ -98,6 +170,45 @@ public class ToDoListApiControllerTest {
 			.andExpect(jsonPath("$[0].description", is("element")));
 	}
 	
+	@Test
+	public void getListByIdCborTest() throws Exception {
+		List<ToDoEntry> lists = new ArrayList<>();
+		
+		ToDoEntry element = new ToDoEntry();
+		element.setId(3L);
+		element.setDescription("element");
+		lists.add(element);
+		
+		given(toDoListController.getListEntries(1L)).willReturn(lists);
+		
+		byte[] body = mvc.perform(get("/api/1").accept(MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR))
+			.andReturn().getResponse().getContentAsByteArray();
+		
+		JsonNode entries = new ObjectMapper(new CBORFactory()).readTree(body);
+		assertEquals(1, entries.size());
+		assertEquals(3L, entries.get(0).get("id").asLong());
+		assertEquals("element", entries.get(0).get("description").asText());
+	}
+	
+	@Test
+	public void getListByIdDefaultsToJsonTest() throws Exception {
+		given(toDoListController.getListEntries(1L)).willReturn(new ArrayList<>());
+		
+		mvc.perform(get("/api/1").accept(MediaType.ALL))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+	
+	@Test
+	public void streamListByIdOkTest() throws Exception {
+		mvc.perform(get("/api/1").accept(ToDoListApiController.APPLICATION_NDJSON_VALUE))
+			.andExpect(status().isOk());
+		
+		verify(toDoListController).streamListEntries(eq(1L), any(HttpServletResponse.class));
+	}
+	
 	@SuppressWarnings("unchecked")
 	@Test
 	public void getListByIdNotFoundTest() throws Exception {
@@ -158,6 +269,54 @@ public class ToDoListApiControllerTest {
 			.andExpect(status().isCreated());
 	}
 	
+	@Test
+	public void createEntriesOkTest() throws Exception {
+		BulkEntryReport report = new BulkEntryReport();
+		report.created(0, 7L);
+		given(toDoListController.createEntries(eq(1L), any())).willReturn(report);
+		
+		mvc.perform(post("/api/1/entries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"description\": \"todo 1\"}]"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.created", is(1)))
+			.andExpect(jsonPath("$.items[0].id", is(7)));
+	}
+	
+	@Test
+	public void createEntriesSmileTest() throws Exception {
+		BulkEntryReport report = new BulkEntryReport();
+		report.created(0, 7L);
+		given(toDoListController.createEntries(eq(1L), any())).willReturn(report);
+		
+		ObjectMapper smile = new ObjectMapper(new SmileFactory());
+		byte[] entries = smile.writeValueAsBytes(new ObjectMapper().readTree("[{\"description\": \"todo 1\"}]"));
+		
+		byte[] body = mvc.perform(post("/api/1/entries")
+				.contentType(MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE)
+				.accept(MappingJackson2SmileHttpMessageConverter.APPLICATION_SMILE)
+				.content(entries))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsByteArray();
+		
+		assertEquals(1, smile.readTree(body).get("created").asInt());
+	}
+	
+	@Test
+	public void createListCborTest() throws Exception {
+		ToDoList list = new ToDoList();
+		list.setName("list 1");
+		
+		given(toDoListController.createList(any())).willReturn(list);
+		
+		ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+		mvc.perform(post("/api")
+				.contentType(MappingJackson2CborHttpMessageConverter.APPLICATION_CBOR)
+				.content(cbor.writeValueAsBytes(list)))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.name", is("list 1")));
+	}
+	
 	public static String asJsonString(final Object obj) {
 	    try {
 	        final ObjectMapper mapper = new ObjectMapper();
@@ -267,6 +426,39 @@ public class ToDoListApiControllerTest {
 				.contentType(MediaType.APPLICATION_JSON))
 			.andExpect(status().isBadRequest());
 	}
+
+	@Test
+	public void getListEntrySummariesTest() throws Exception {
+		List<ToDoEntrySummary> summaries = new ArrayList<>();
+		summaries.add(new ToDoEntrySummary(7L, "first words", 500));
+		summaries.add(new ToDoEntrySummary(8L, "short", 5));
+		
+		given(toDoListController.getListEntrySummaries(1L)).willReturn(summaries);
+		
+		mvc.perform(get("/api/1/entries").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(2)))
+			.andExpect(jsonPath("$[0].id", is(7)))
+			.andExpect(jsonPath("$[0].preview", is("first words")))
+			.andExpect(jsonPath("$[0].length", is(500)))
+			.andExpect(jsonPath("$[0].truncated", is(true)))
+			.andExpect(jsonPath("$[1].truncated", is(false)));
+	}
 	
+	@Test
+	public void getEntryTest() throws Exception {
+		ToDoEntry entry = new ToDoEntry();
+		entry.setId(7L);
+		entry.setDescription("full description");
+		
+		given(toDoListController.getEntry(1L, 7L)).willReturn(entry);
+		given(toDoListController.getEntry(1L, 8L)).willThrow(NotFoundException.class);
+		
+		mvc.perform(get("/api/1/entries/7").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.description", is("full description")));
+		mvc.perform(get("/api/1/entries/8").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound());
+	}
 	
 }
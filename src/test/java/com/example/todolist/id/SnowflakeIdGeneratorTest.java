@@ -0,0 +1,127 @@
+package com.example.todolist.id;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class SnowflakeIdGeneratorTest {
+
+	private static final long NOW = 1600000000000L;
+
+	@Test
+	public void idHoldsTimestampAndNodeTest() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, () -> NOW);
+
+		long first = generator.nextId();
+		long second = generator.nextId();
+
+		assertEquals(NOW, SnowflakeIdGenerator.timestamp(first));
+		assertEquals(5, SnowflakeIdGenerator.nodeId(first));
+		assertEquals(first + 1, second);
+	}
+
+	@Test
+	public void nodesCreateDifferentIdsTest() {
+		long first = new SnowflakeIdGenerator(1, () -> NOW).nextId();
+		long second = new SnowflakeIdGenerator(2, () -> NOW).nextId();
+
+		assertNotEquals(first, second);
+		assertEquals(2, SnowflakeIdGenerator.nodeId(second));
+	}
+
+	@Test
+	public void fullSequenceContinuesOnNextMillisecondTest() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> NOW);
+
+		long previous = generator.nextId();
+		for (int i = 1; i < 1000; i++) {
+			long id = generator.nextId();
+			assertTrue(id > previous);
+			assertEquals(3, SnowflakeIdGenerator.nodeId(id));
+			previous = id;
+		}
+		// 128 ids per millisecond
+		assertEquals(NOW + 7, SnowflakeIdGenerator.timestamp(previous));
+	}
+
+	@Test
+	public void clockGoingBackTest() {
+		AtomicLong clock = new AtomicLong(NOW);
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+		long before = generator.nextId();
+		clock.set(NOW - 1000);
+		long after = generator.nextId();
+
+		assertTrue(after > before);
+		assertEquals(NOW, SnowflakeIdGenerator.timestamp(after));
+		clock.set(NOW + 1);
+		assertEquals(NOW + 1, SnowflakeIdGenerator.timestamp(generator.nextId()));
+	}
+
+	@Test
+	public void idsStayExactInJavaScriptTest() {
+		long lastMillisecond = SnowflakeIdGenerator.EPOCH + (1L << 41) - 1;
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID,
+				() -> lastMillisecond);
+
+		long id = 0;
+		for (int i = 0; i < 128; i++) {
+			id = generator.nextId();
+		}
+
+		assertEquals((1L << 53) - 1, id);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidNodeIdTest() {
+		new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, () -> NOW);
+	}
+
+	@Test
+	public void sharedPerNodeTest() {
+		assertTrue(SnowflakeIdGenerator.forNode(7) == SnowflakeIdGenerator.forNode(7));
+	}
+
+	@Test
+	public void concurrentIdsAreUniqueTest() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, System::currentTimeMillis);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<long[]>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit((Callable<long[]>) () -> {
+					long[] ids = new long[50000];
+					for (int i = 0; i < ids.length; i++) {
+						ids[i] = generator.nextId();
+					}
+					return ids;
+				}));
+			}
+			Set<Long> unique = new HashSet<>();
+			for (Future<long[]> result : results) {
+				long previous = Long.MIN_VALUE;
+				for (long id : result.get()) {
+					assertTrue(id > previous);
+					unique.add(id);
+					previous = id;
+				}
+			}
+			assertEquals(200000, unique.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.example.todolist.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.ingest.EntryWriteBuffer.PendingEntry;
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "todolist.write-buffer.enabled=true", "todolist.write-buffer.batch-size=20",
+		"todolist.write-buffer.flush-interval-ms=50" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntryWriteBufferTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private EntryWriteBuffer entryWriteBuffer;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	private Long listId;
+
+	@Before
+	public void setUp() {
+		ToDoList list = new ToDoList();
+		list.setName("buffered list");
+		listId = listRepository.save(list).getId();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private static ToDoEntry entry(String description) {
+		ToDoEntry entry = new ToDoEntry();
+		entry.setDescription(description);
+		return entry;
+	}
+
+	private void awaitEntries(int expected) throws InterruptedException {
+		for (int i = 0; i < 100 && entryRepository.count() < expected; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(expected, entryRepository.count());
+	}
+
+	@Test
+	public void bufferedCreateTest() throws Exception {
+		for (int i = 0; i < 45; i++) {
+			mvc.perform(post("/api/" + listId + "/buffered")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"description\": \"buffered " + i + "\"}"))
+				.andExpect(status().isAccepted());
+		}
+
+		awaitEntries(45);
+	}
+
+	@Test
+	public void bufferedCreateValidationTest() throws Exception {
+		mvc.perform(post("/api/" + (listId + 1000) + "/buffered")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"buffered\"}"))
+			.andExpect(status().isNotFound());
+		mvc.perform(post("/api/" + listId + "/buffered")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void deletedListIsDroppedTest() {
+		List<PendingEntry> batch = new ArrayList<>();
+		batch.add(new PendingEntry(listId, entry("kept")));
+		batch.add(new PendingEntry(listId + 1000, entry("dropped")));
+		batch.add(new PendingEntry(listId, entry("kept too")));
+
+		entryWriteBuffer.write(batch);
+
+		assertEquals(2, entryRepository.count());
+	}
+
+	@Test
+	public void stopFlushesQueueTest() throws Exception {
+		// a buffer of its own, the shared one is still needed by the other tests
+		EntryWriteBuffer buffer = applicationContext.getAutowireCapableBeanFactory().createBean(EntryWriteBuffer.class);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(buffer.offer(listId, entry("queued " + i)));
+		}
+
+		buffer.stop();
+
+		assertEquals(0, buffer.queued());
+		assertEquals(100, entryRepository.count());
+		assertFalse(buffer.offer(listId, entry("too late")));
+	}
+
+	@Test
+	public void entriesOfferedWhileStoppingAreWrittenTest() throws Exception {
+		EntryWriteBuffer buffer = applicationContext.getAutowireCapableBeanFactory().createBean(EntryWriteBuffer.class);
+		AtomicInteger accepted = new AtomicInteger();
+		List<Thread> clients = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread client = new Thread(() -> {
+				try {
+					while (buffer.offer(listId, entry("racing"))) {
+						accepted.incrementAndGet();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			client.start();
+			clients.add(client);
+		}
+		while (accepted.get() < 200) {
+			Thread.sleep(1);
+		}
+
+		buffer.stop();
+		for (Thread client : clients) {
+			client.join();
+		}
+
+		// every entry answered with 202 is in the database
+		assertEquals(accepted.get(), entryRepository.count());
+	}
+}
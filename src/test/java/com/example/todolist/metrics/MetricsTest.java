@@ -0,0 +1,119 @@
+package com.example.todolist.metrics;
+
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricsTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	private Long listId;
+
+	@Before
+	public void setUp() {
+		ToDoList list = new ToDoList();
+		list.setName("metrics list");
+		listId = listRepository.save(list).getId();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private double errorCount(String method, String exception) {
+		Counter counter = registry.find(MetricsAspect.ERROR_METRIC)
+				.tags("method", method, "exception", exception).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	@Test
+	public void repositoryTimerTest() throws Exception {
+		mvc.perform(get("/api/" + listId)).andExpect(status().isOk());
+
+		Timer timer = registry.find(MetricsAspect.REPOSITORY_METRIC)
+				.tags("repository", "EntryRepository", "method", "findAllByListId").timer();
+		assertNotNull(timer);
+		assertNotNull(registry.find(MetricsAspect.REPOSITORY_METRIC)
+				.tags("repository", "ListRepository", "method", "findVersionById").timer());
+	}
+
+	@Test
+	public void statementCountTest() throws Exception {
+		DistributionSummary summary = registry.find(StatementCountInterceptor.METRIC)
+				.tags("method", "GET", "uri", "/api/{listId}").summary();
+		long count = summary == null ? 0 : summary.count();
+		double total = summary == null ? 0 : summary.totalAmount();
+
+		mvc.perform(get("/api/" + (listId + 1000))).andExpect(status().isNotFound());
+
+		summary = registry.find(StatementCountInterceptor.METRIC)
+				.tags("method", "GET", "uri", "/api/{listId}").summary();
+		assertEquals(count + 1, summary.count());
+		// version lookup and existence check
+		assertEquals(total + 2, summary.totalAmount(), 0);
+	}
+
+	@Test
+	public void errorCounterTest() throws Exception {
+		double notFound = errorCount("deleteList", "NotFoundException");
+		double badRequest = errorCount("createEntry", "DataIntegrationViolationException");
+
+		mvc.perform(delete("/api/" + (listId + 1000))).andExpect(status().isNotFound());
+		mvc.perform(delete("/api/" + (listId + 1000))).andExpect(status().isNotFound());
+
+		assertEquals(notFound + 2, errorCount("deleteList", "NotFoundException"), 0);
+		assertEquals(badRequest, errorCount("createEntry", "DataIntegrationViolationException"), 0);
+	}
+
+	@Test
+	public void prometheusEndpointTest() throws Exception {
+		mvc.perform(get("/api/" + listId)).andExpect(status().isOk());
+
+		mvc.perform(get("/prometheus"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+			.andExpect(content().string(containsString("todolist_repository_seconds_bucket")))
+			.andExpect(content().string(containsString("todolist_sql_statements_bucket")))
+			.andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")));
+	}
+}
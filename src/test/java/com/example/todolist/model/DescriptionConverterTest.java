@@ -0,0 +1,71 @@
+package com.example.todolist.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DescriptionConverterTest {
+
+	private final DescriptionConverter converter = new DescriptionConverter();
+
+	private String roundTrip(String description) {
+		return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(description));
+	}
+
+	private static String repeat(String text, int length) {
+		StringBuilder result = new StringBuilder();
+		while (result.length() < length) {
+			result.append(text);
+		}
+		return result.substring(0, length);
+	}
+
+	@Test
+	public void shortDescriptionTest() {
+		byte[] data = converter.convertToDatabaseColumn("buy milk");
+
+		assertEquals(DescriptionConverter.PLAIN, data[0]);
+		assertEquals(9, data.length);
+		assertEquals("buy milk", roundTrip("buy milk"));
+		assertEquals("", roundTrip(""));
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+	}
+
+	@Test
+	public void longDescriptionTest() {
+		String description = repeat("Grüße, to-do list entry with some repeated text. ", ToDoEntry.MAX_DESCRIPTION_LENGTH);
+		byte[] data = converter.convertToDatabaseColumn(description);
+
+		assertEquals(DescriptionConverter.DEFLATED, data[0]);
+		assertTrue(data.length * 10 < description.length());
+		assertEquals(description, roundTrip(description));
+	}
+
+	@Test
+	public void incompressibleDescriptionTest() {
+		Random random = new Random(1);
+		StringBuilder description = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			description.appendCodePoint(0x4E00 + random.nextInt(0x5000));
+		}
+		byte[] data = converter.convertToDatabaseColumn(description.toString());
+
+		assertEquals(description.toString(), roundTrip(description.toString()));
+		assertTrue(data.length <= description.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8).length + 1);
+	}
+
+	@Test
+	public void previewTest() {
+		String description = repeat("a", ToDoEntrySummary.PREVIEW_LENGTH - 1) + "😀 more";
+		String preview = ToDoEntrySummary.preview(description);
+
+		assertEquals(ToDoEntrySummary.PREVIEW_LENGTH - 1, preview.length());
+		assertEquals("short", ToDoEntrySummary.preview("short"));
+		assertTrue(new ToDoEntrySummary(1L, preview, description.length()).isTruncated());
+	}
+}
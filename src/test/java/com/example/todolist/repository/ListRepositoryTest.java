@@ -0,0 +1,74 @@
+package com.example.todolist.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class ListRepositoryTest {
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	private ToDoList persistList(String name, int entries) {
+		ToDoList list = new ToDoList();
+		list.setName(name);
+		for (int i = 0; i < entries; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription(name + " entry " + i);
+			entry.setList(list);
+			list.addEntry(entry);
+		}
+		return entityManager.persist(list);
+	}
+
+	@Test
+	public void findSummariesAfterTest() {
+		ToDoList first = persistList("first", 2);
+		ToDoList second = persistList("second", 0);
+		ToDoList third = persistList("third", 3);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<ToDoListSummary> page = listRepository.findSummariesAfter(0L, new PageRequest(0, 2));
+		assertEquals(2, page.size());
+		assertEquals(first.getId(), page.get(0).getId());
+		assertEquals("first", page.get(0).getName());
+		assertEquals(2L, page.get(0).getEntryCount());
+		assertEquals(second.getId(), page.get(1).getId());
+		assertEquals(0L, page.get(1).getEntryCount());
+
+		page = listRepository.findSummariesAfter(page.get(1).getId(), new PageRequest(0, 2));
+		assertEquals(1, page.size());
+		assertEquals(third.getId(), page.get(0).getId());
+		assertEquals(3L, page.get(0).getEntryCount());
+	}
+
+	@Test
+	public void findSummariesAfterDoesNotLoadEntriesTest() {
+		persistList("lazy", 2);
+		entityManager.flush();
+		entityManager.clear();
+
+		listRepository.findSummariesAfter(0L, new PageRequest(0, 10));
+
+		Session session = entityManager.getEntityManager().unwrap(Session.class);
+		assertEquals(0, session.getStatistics().getEntityCount());
+	}
+}
@@ -0,0 +1,137 @@
+package com.example.todolist.repository.store;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.controller.ToDoListApiController;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "todolist.log.path=build/log-profile-test/todolist.log")
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "log" })
+public class LogProfileIntegrationTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@After
+	public void tearDown() {
+		listRepository.deleteAllInBatch();
+	}
+
+	private long createList(String body) throws Exception {
+		String response = mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asLong();
+	}
+
+	@Test
+	public void repositoriesAreBackedByTheLogTest() {
+		assertTrue(listRepository instanceof StoreListRepository);
+		assertTrue(entryRepository instanceof StoreEntryRepository);
+	}
+
+	@Test
+	public void listLifecycleTest() throws Exception {
+		long listId = createList("{\"name\": \"log list\", \"entries\": [{\"description\": \"first\"}]}");
+
+		String created = mvc.perform(post("/api/" + listId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"second\"}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		JsonNode entry = objectMapper.readTree(created);
+
+		mvc.perform(get("/api/" + listId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(2)));
+		mvc.perform(get("/api?limit=10"))
+			.andExpect(jsonPath("$[0].entryCount", is(2)));
+
+		mvc.perform(delete("/api/" + entry.get("id").asLong() + "/" + listId))
+			.andExpect(status().isOk());
+		mvc.perform(get("/api"))
+			.andExpect(jsonPath("$[0].entries", hasSize(1)));
+
+		mvc.perform(delete("/api/" + listId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.entries", hasSize(1)));
+		mvc.perform(get("/api/" + listId))
+			.andExpect(status().isNotFound());
+		assertEquals(0, entryRepository.count());
+	}
+
+	@Test
+	public void duplicateNameTest() throws Exception {
+		createList("{\"name\": \"taken\"}");
+
+		mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"taken\"}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void bulkImportAndStreamTest() throws Exception {
+		long listId = createList("{\"name\": \"bulk list\"}");
+
+		mvc.perform(post("/api/" + listId + "/entries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"description\": \"a\"}, {}, {\"description\": \"b\"}]"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.created", is(2)))
+			.andExpect(jsonPath("$.rejected", is(1)));
+
+		String lines = mvc.perform(get("/api/" + listId).accept(ToDoListApiController.APPLICATION_NDJSON_VALUE))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(ToDoListApiController.APPLICATION_NDJSON_VALUE))
+			.andReturn().getResponse().getContentAsString();
+		assertEquals(2, lines.split("\n").length);
+	}
+
+	@Test
+	public void wrongEntryTest() throws Exception {
+		long listId = createList("{\"name\": \"first\", \"entries\": [{\"description\": \"entry\"}]}");
+		long otherId = createList("{\"name\": \"second\"}");
+		long entryId = entryRepository.findAllByListId(listId).iterator().next().getId();
+
+		mvc.perform(delete("/api/" + entryId + "/" + otherId))
+			.andExpect(status().isBadRequest());
+		mvc.perform(delete("/api/" + (entryId + 1000) + "/" + listId))
+			.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,173 @@
+package com.example.todolist.repository.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+
+public class LogStoreTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path path;
+
+	private LogStore store;
+
+	@Before
+	public void setUp() throws IOException {
+		path = folder.getRoot().toPath().resolve("todolist.log");
+		store = open();
+	}
+
+	@After
+	public void tearDown() {
+		store.close();
+	}
+
+	private LogStore open() {
+		return new LogStore(path, 4096, 0.5, 0);
+	}
+
+	private LogStore reopen() {
+		store.close();
+		store = open();
+		return store;
+	}
+
+	private ToDoList saveList(String name, int entries) {
+		ToDoList list = new ToDoList();
+		list.setName(name);
+		for (int i = 0; i < entries; i++) {
+			list.addEntry(entry(name + " entry " + i));
+		}
+		return store.saveList(list);
+	}
+
+	private static ToDoEntry entry(String description) {
+		ToDoEntry entry = new ToDoEntry();
+		entry.setDescription(description);
+		return entry;
+	}
+
+	@Test
+	public void reopenTest() {
+		ToDoList first = saveList("first", 3);
+		ToDoList second = saveList("second", 1);
+		store.incrementListVersion(first.getId());
+		store.deleteEntry(first.getEntries().iterator().next().getId(), first.getId());
+
+		reopen();
+
+		assertEquals(2, store.countLists());
+		assertEquals(3, store.countEntries());
+		assertEquals(Long.valueOf(1), store.findListVersion(first.getId()));
+		assertEquals(2, store.findList(first.getId(), true).getEntries().size());
+		assertEquals("second entry 0", store.findEntries(second.getId()).get(0).getDescription());
+	}
+
+	@Test
+	public void tornRecordIsIgnoredTest() throws IOException {
+		ToDoList list = saveList("list", 2);
+		long size = store.size();
+		store.close();
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			// flip a byte in the description of the last entry
+			file.seek(size - 2);
+			file.write(file.read() ^ 0xff);
+		}
+		store = open();
+
+		assertEquals(1, store.countEntries());
+		store.saveEntries(list.getId(), singleton(entry("after recovery")));
+		reopen();
+		assertEquals(2, store.countEntries());
+	}
+
+	@Test
+	public void compactionTest() {
+		ToDoList list = saveList("list", 100);
+		ToDoList other = saveList("other", 1);
+		store.deleteEntries(list.getId());
+		store.saveEntries(list.getId(), singleton(entry("kept")));
+		long before = store.size();
+
+		assertTrue(store.compactIfNeeded());
+
+		assertTrue(store.size() < before / 4);
+		assertEquals(store.size(), store.liveBytes());
+		assertEquals("kept", store.findEntries(list.getId()).get(0).getDescription());
+		Long lastEntryId = store.findEntries(list.getId()).get(0).getId();
+		store.deleteList(other.getId());
+		reopen();
+		assertEquals(1, store.countLists());
+		assertEquals(1, store.countEntries());
+		// ids are not handed out again after compaction and restart
+		assertTrue(saveList("new", 0).getId() > other.getId());
+		ToDoEntry entry = entry("new entry");
+		store.saveEntries(list.getId(), singleton(entry));
+		assertTrue(entry.getId() > lastEntryId);
+	}
+
+	@Test
+	public void noCompactionWithoutGarbageTest() {
+		saveList("list", 10);
+
+		assertTrue(!store.compactIfNeeded());
+	}
+
+	@Test
+	public void growsBeyondInitialCapacityTest() {
+		ToDoList list = saveList("list", 0);
+		List<ToDoEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			entries.add(entry("entry " + i));
+		}
+		store.saveEntries(list.getId(), entries);
+
+		reopen();
+		assertEquals(1000, store.findEntries(list.getId()).size());
+	}
+
+	@Test(expected = DataIntegrityViolationException.class)
+	public void duplicateNameTest() {
+		saveList("list", 0);
+		saveList("list", 0);
+	}
+
+	@Test(expected = DataIntegrityViolationException.class)
+	public void entryOfMissingListTest() {
+		store.saveEntries(42L, singleton(entry("orphan")));
+	}
+
+	@Test
+	public void deleteEntryOfOtherListTest() {
+		ToDoList first = saveList("first", 1);
+		ToDoList second = saveList("second", 0);
+		Long entryId = first.getEntries().iterator().next().getId();
+
+		assertEquals(0, store.deleteEntry(entryId, second.getId()));
+		assertEquals(1, store.deleteEntry(entryId, first.getId()));
+		assertNull(store.findEntry(entryId));
+	}
+
+	private static List<ToDoEntry> singleton(ToDoEntry entry) {
+		List<ToDoEntry> entries = new ArrayList<>();
+		entries.add(entry);
+		return entries;
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.repository.store;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the API tests of the "log" profile against the in-memory store
+ */
+@ActiveProfiles(profiles = { "test", "memory" }, inheritProfiles = false)
+public class MemoryProfileIntegrationTest extends LogProfileIntegrationTest {
+	@Autowired
+	private ToDoStore store;
+
+	@Test
+	public void storeIsInMemoryTest() {
+		assertTrue(store instanceof MemoryStore);
+	}
+}
@@ -0,0 +1,200 @@
+package com.example.todolist.repository.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.model.ToDoListSummary;
+
+public class MemoryStoreTest {
+
+	private MemoryStore store;
+
+	@Before
+	public void setUp() {
+		store = new MemoryStore(4);
+	}
+
+	private ToDoList saveList(String name, int entries) {
+		ToDoList list = new ToDoList();
+		list.setName(name);
+		for (int i = 0; i < entries; i++) {
+			list.addEntry(entry(name + " entry " + i));
+		}
+		return store.saveList(list);
+	}
+
+	private static ToDoEntry entry(String description) {
+		ToDoEntry entry = new ToDoEntry();
+		entry.setDescription(description);
+		return entry;
+	}
+
+	@Test
+	public void saveAndFindTest() {
+		ToDoList first = saveList("first", 3);
+		saveList("second", 0);
+		store.incrementListVersion(first.getId());
+
+		assertEquals(2, store.countLists());
+		assertEquals(3, store.countEntries());
+		assertTrue(store.existsList(first.getId()));
+		assertEquals(Long.valueOf(1), store.findListVersion(first.getId()));
+		assertEquals("first", store.findList(first.getId(), false).getName());
+		assertEquals(3, store.findList(first.getId(), true).getEntries().size());
+		assertTrue(store.findEntries(first.getId()).get(0).getDescription().startsWith("first entry "));
+		assertEquals(3, store.streamEntries(first.getId()).count());
+
+		Long entryId = store.findEntries(first.getId()).get(1).getId();
+		assertTrue(store.existsEntry(entryId));
+		assertEquals(first.getId(), store.findEntry(entryId).getList().getId());
+	}
+
+	@Test
+	public void updateTest() {
+		ToDoList list = saveList("before", 1);
+		ToDoEntry entry = store.findEntries(list.getId()).get(0);
+		entry.setDescription("changed");
+		store.saveEntries(list.getId(), Collections.singleton(entry));
+
+		ToDoList renamed = store.findList(list.getId(), false);
+		renamed.setName("after");
+		store.saveList(renamed);
+
+		assertEquals(1, store.countEntries());
+		assertEquals("changed", store.findEntry(entry.getId()).getDescription());
+		assertEquals("after", store.findList(list.getId(), false).getName());
+		// the old name is free again
+		saveList("before", 0);
+	}
+
+	@Test
+	public void summariesTest() {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ids.add(saveList("list " + i, i % 3).getId());
+		}
+
+		List<ToDoListSummary> page = store.findSummariesAfter(null, 5);
+		assertEquals(5, page.size());
+		assertEquals(ids.get(0), page.get(0).getId());
+		assertEquals(2, page.get(2).getEntryCount());
+
+		page = store.findSummariesAfter(ids.get(4), 100);
+		assertEquals(15, page.size());
+		assertEquals(ids.get(5), page.get(0).getId());
+		assertEquals(ids.get(19), page.get(14).getId());
+	}
+
+	@Test
+	public void deleteTest() {
+		ToDoList first = saveList("first", 3);
+		ToDoList second = saveList("second", 2);
+		Long entryId = store.findEntries(first.getId()).get(0).getId();
+
+		assertEquals(0, store.deleteEntry(entryId, second.getId()));
+		assertEquals(1, store.deleteEntry(entryId, first.getId()));
+		assertNull(store.findEntry(entryId));
+		assertEquals(2, store.deleteEntries(first.getId()));
+		assertTrue(store.deleteList(second.getId()));
+		assertFalse(store.deleteList(second.getId()));
+
+		assertEquals(1, store.countLists());
+		assertEquals(0, store.countEntries());
+		saveList("second", 0);
+		store.deleteAll();
+		assertEquals(0, store.countLists());
+	}
+
+	@Test
+	public void deleteFromTheMiddleTest() {
+		ToDoList list = saveList("list", 10);
+		List<ToDoEntry> entries = store.findEntries(list.getId());
+
+		assertEquals(1, store.deleteEntry(entries.get(3).getId(), list.getId()));
+		assertEquals(1, store.deleteEntry(entries.get(0).getId(), null));
+
+		entries.remove(3);
+		entries.remove(0);
+		List<ToDoEntry> remaining = store.findEntries(list.getId());
+		assertEquals(entries.size(), remaining.size());
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(entries.get(i).getId(), remaining.get(i).getId());
+			assertEquals(entries.get(i).getDescription(), store.findEntry(entries.get(i).getId()).getDescription());
+		}
+		ToDoEntry last = entries.get(entries.size() - 1);
+		last.setDescription("updated");
+		store.saveEntries(list.getId(), Collections.singleton(last));
+		assertEquals("updated", store.findEntry(last.getId()).getDescription());
+		assertEquals(8, store.countEntries());
+	}
+
+	@Test(expected = DataIntegrityViolationException.class)
+	public void duplicateNameTest() {
+		saveList("taken", 0);
+		saveList("taken", 0);
+	}
+
+	@Test(expected = DataIntegrityViolationException.class)
+	public void entryOfMissingListTest() {
+		store.saveEntries(42L, Collections.singleton(entry("orphan")));
+	}
+
+	@Test
+	public void moveEntryTest() {
+		ToDoList first = saveList("first", 1);
+		ToDoList second = saveList("second", 0);
+		ToDoEntry entry = store.findEntries(first.getId()).get(0);
+
+		store.saveEntries(second.getId(), Collections.singleton(entry));
+
+		assertEquals(0, store.findEntries(first.getId()).size());
+		assertEquals(second.getId(), store.findEntry(entry.getId()).getList().getId());
+		assertEquals(1, store.countEntries());
+	}
+
+	@Test
+	public void concurrentWritersTest() throws Exception {
+		int threads = 4;
+		int listsPerThread = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				String prefix = "thread " + t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < listsPerThread; i++) {
+						ToDoList list = saveList(prefix + " list " + i, 2);
+						store.saveEntries(list.getId(), Collections.singleton(entry("extra")));
+						store.findLists(true);
+						if (i % 2 == 0) {
+							store.deleteList(list.getId());
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * listsPerThread / 2, store.countLists());
+		assertEquals(threads * listsPerThread / 2 * 3, store.countEntries());
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.todolist.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.todolist.model.ToDoEntry;
+
+public class EntryIndexTest {
+
+	private final EntryIndex index = new EntryIndex();
+
+	private static ToDoEntry entry(long id, String description) {
+		ToDoEntry entry = new ToDoEntry();
+		entry.setId(id);
+		entry.setDescription(description);
+		return entry;
+	}
+
+	private long[] ids(List<SearchHit> hits) {
+		return hits.stream().mapToLong(SearchHit::getEntryId).toArray();
+	}
+
+	@Test
+	public void tokenizeTest() {
+		assertEquals(Arrays.asList("buy", "milk", "and", "eggs", "42"), Tokenizer.tokenize("Buy MILK, and eggs! (42) a"));
+		assertTrue(Tokenizer.tokenize(" - ").isEmpty());
+		assertTrue(Tokenizer.tokenize(null).isEmpty());
+	}
+
+	@Test
+	public void searchTest() {
+		index.addAll(1L, Arrays.asList(entry(1, "Buy milk"), entry(2, "buy bread and milk, milk, milk"),
+				entry(3, "Call the bank")));
+		index.add(2L, entry(4, "milk the cows before the long walk into town"));
+
+		assertEquals(4, index.size());
+		// all words must match, matches in shorter texts rank higher
+		assertTrue(Arrays.equals(new long[] { 1, 2 }, ids(index.search("MILK buy", null, 10))));
+		assertEquals(3, index.search("milk", null, 10).size());
+		assertEquals(1, index.search("milk", null, 1).size());
+		assertTrue(Arrays.equals(new long[] { 4 }, ids(index.search("milk", 2L, 10))));
+		assertEquals(2, index.search("milk", 2L, 10).get(0).getListId());
+		assertTrue(index.search("milk bank", null, 10).isEmpty());
+		assertTrue(index.search("unknown", null, 10).isEmpty());
+		assertTrue(index.search("a", null, 10).isEmpty());
+	}
+
+	@Test
+	public void updateAndRemoveTest() {
+		index.addAll(1L, Arrays.asList(entry(1, "buy milk"), entry(2, "buy bread")));
+		index.add(2L, entry(3, "buy stamps"));
+
+		index.add(1L, entry(1, "sell milk"));
+		assertTrue(Arrays.equals(new long[] { 2, 3 }, ids(index.search("buy", null, 10))));
+
+		index.remove(2L);
+		assertTrue(Arrays.equals(new long[] { 3 }, ids(index.search("buy", null, 10))));
+
+		index.removeList(2L);
+		assertTrue(index.search("buy", null, 10).isEmpty());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void intersectionTest() {
+		for (long id = 1; id <= 10000; id++) {
+			index.add(id % 10, entry(id, (id % 2 == 0 ? "even " : "odd ") + (id % 3 == 0 ? "three " : "") + "entry"));
+		}
+
+		List<SearchHit> hits = index.search("even three", null, 10000);
+		assertEquals(1666, hits.size());
+		for (SearchHit hit : hits) {
+			assertEquals(0, hit.getEntryId() % 6);
+		}
+		assertEquals(334, index.search("three even entry", 6L, 10000).size());
+	}
+}
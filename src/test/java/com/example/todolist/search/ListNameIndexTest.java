@@ -0,0 +1,63 @@
+package com.example.todolist.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ListNameIndexTest {
+
+	private final ListNameIndex index = new ListNameIndex();
+
+	private List<String> suggest(String prefix, int limit) {
+		return index.suggest(prefix, limit).stream().map(ListSuggestion::getName).collect(Collectors.toList());
+	}
+
+	@Test
+	public void suggestTest() {
+		index.add(1L, "groceries");
+		index.add(2L, "Garden");
+		index.add(3L, "Gro");
+		index.add(4L, "gRO");
+		index.add(5L, "work");
+
+		assertEquals(Arrays.asList("Gro", "gRO", "groceries"), suggest("gro", 10));
+		assertEquals(Arrays.asList("Garden", "Gro"), suggest("G", 2));
+		assertEquals(Arrays.asList("work"), suggest("WORK", 10));
+		assertEquals(5, suggest("", 10).size());
+		assertTrue(suggest("grocery", 10).isEmpty());
+		assertTrue(suggest("x", 10).isEmpty());
+		assertEquals(4, index.suggest("gRO", 10).get(1).getId());
+	}
+
+	@Test
+	public void removeTest() {
+		index.add(1L, "groceries");
+		index.add(2L, "gro");
+		index.add(2L, "gro");
+
+		assertEquals(2, index.size());
+		index.remove(3L, "gro");
+		assertEquals(2, index.size());
+		index.remove(2L, "gro");
+		assertEquals(Arrays.asList("groceries"), suggest("g", 10));
+		index.remove(1L, "groceries");
+		assertTrue(suggest("", 10).isEmpty());
+	}
+
+	@Test
+	public void sameNameOnSeveralListsTest() {
+		index.add(5L, "shared");
+		index.add(3L, "shared");
+
+		assertEquals(Arrays.asList("shared", "shared"), suggest("sh", 10));
+		assertEquals(3, index.suggest("sh", 10).get(0).getId());
+		index.remove(3L, "shared");
+		assertEquals(1, index.size());
+		assertEquals(5, index.suggest("sh", 10).get(0).getId());
+	}
+}
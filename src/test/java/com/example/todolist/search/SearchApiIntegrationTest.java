@@ -0,0 +1,130 @@
+package com.example.todolist.search;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SearchApiIntegrationTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@Autowired
+	private EntryIndex entryIndex;
+
+	@Autowired
+	private ListNameIndex listNameIndex;
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+		entryIndex.rebuild();
+		listNameIndex.rebuild();
+	}
+
+	private long create(String url, String body) throws Exception {
+		String response = mvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asLong();
+	}
+
+	@Test
+	public void searchTest() throws Exception {
+		long groceries = create("/api", "{\"name\": \"groceries\", \"entries\": [{\"description\": \"Buy milk\"}]}");
+		long chores = create("/api", "{\"name\": \"chores\"}");
+		long entryId = create("/api/" + chores, "{\"description\": \"Milk, more milk\"}");
+		mvc.perform(post("/api/" + groceries + "/entries").contentType(MediaType.APPLICATION_JSON).content(
+				"[{\"description\": \"oat milk\"}, {\"description\": \"bread\"}]"))
+			.andExpect(status().isCreated());
+
+		mvc.perform(get("/api/search?q=milk"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(3)))
+			.andExpect(jsonPath("$[0].entryId", is(entryId)))
+			.andExpect(jsonPath("$[0].listId", is(chores)));
+		mvc.perform(get("/api/search?q=milk&listId=" + groceries))
+			.andExpect(jsonPath("$", hasSize(2)));
+		mvc.perform(get("/api/search?q=milk&limit=1"))
+			.andExpect(jsonPath("$", hasSize(1)));
+
+		mvc.perform(delete("/api/" + entryId + "/" + chores)).andExpect(status().isOk());
+		mvc.perform(get("/api/search?q=milk"))
+			.andExpect(jsonPath("$", hasSize(2)));
+		mvc.perform(delete("/api/" + groceries)).andExpect(status().isOk());
+		mvc.perform(get("/api/search?q=milk"))
+			.andExpect(jsonPath("$", hasSize(0)));
+	}
+
+	@Test
+	public void rebuildTest() throws Exception {
+		long listId = create("/api", "{\"name\": \"rebuilt\", \"entries\": [{\"description\": \"Water the plants\"}]}");
+
+		entryIndex.rebuild();
+
+		mvc.perform(get("/api/search?q=plants"))
+			.andExpect(jsonPath("$", hasSize(1)))
+			.andExpect(jsonPath("$[0].listId", is(listId)));
+	}
+
+	@Test
+	public void suggestTest() throws Exception {
+		long listId = create("/api", "{\"name\": \"Groceries\"}");
+		create("/api", "{\"name\": \"garden\"}");
+
+		mvc.perform(get("/api/lists/suggest?prefix=gr"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)))
+			.andExpect(jsonPath("$[0].id", is(listId)))
+			.andExpect(jsonPath("$[0].name", is("Groceries")));
+		mvc.perform(get("/api/lists/suggest?prefix=G&limit=1"))
+			.andExpect(jsonPath("$", hasSize(1)))
+			.andExpect(jsonPath("$[0].name", is("garden")));
+
+		mvc.perform(delete("/api/" + listId)).andExpect(status().isOk());
+		mvc.perform(get("/api/lists/suggest?prefix=gr"))
+			.andExpect(jsonPath("$", hasSize(0)));
+	}
+
+	@Test
+	public void invalidQueryTest() throws Exception {
+		mvc.perform(get("/api/search?q=!"))
+			.andExpect(status().isBadRequest());
+		mvc.perform(get("/api/search?q=milk&limit=0"))
+			.andExpect(status().isBadRequest());
+		mvc.perform(get("/api/search"))
+			.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,302 @@
+package com.example.todolist.shard;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+import com.example.todolist.snapshot.SnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "todolist.snapshot.path=build/sharded-test/todolist.snapshot",
+		"todolist.snapshot.export-on-shutdown=false" })
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "sharded" })
+public class ShardedProfileIntegrationTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Shards shards;
+
+	@Autowired
+	private ShardedDataSource dataSource;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@Autowired
+	private SnapshotService snapshotService;
+
+	@After
+	public void tearDown() {
+		shards.forEach(() -> {
+			entryRepository.deleteAllInBatch();
+			listRepository.deleteAllInBatch();
+		});
+	}
+
+	private long createList(String name) throws Exception {
+		String response = mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"" + name + "\", \"entries\": [{\"description\": \"" + name + " entry\"}]}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(response).get("id").asLong();
+	}
+
+	private List<Long> createLists(int count) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(createList("list " + i));
+		}
+		return ids;
+	}
+
+	private JdbcTemplate shard(int shard) {
+		return new JdbcTemplate(dataSource.getShards().get(shard));
+	}
+
+	@Test
+	public void listsAndEntriesAreStoredOnTheirShardTest() throws Exception {
+		List<Long> ids = createLists(16);
+
+		int stored = 0;
+		int usedShards = 0;
+		for (int shard = 0; shard < shards.count(); shard++) {
+			List<Long> lists = shard(shard).queryForList("select id from lists", Long.class);
+			for (Long id : lists) {
+				assertEquals(shard, shards.shardOf(id));
+				assertEquals(Long.valueOf(1), shard(shard)
+						.queryForObject("select count(*) from entries where list_id = ?", Long.class, id));
+			}
+			stored += lists.size();
+			usedShards += lists.isEmpty() ? 0 : 1;
+		}
+		assertEquals(ids.size(), stored);
+		assertTrue(usedShards > 1);
+	}
+
+	@Test
+	public void newListIdIsCreatedBeforeSavingTest() throws Exception {
+		String response = mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"id\": 42, \"name\": \"sent id\"}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readTree(response).get("id").asLong();
+
+		assertTrue(id != 42);
+		assertEquals(Long.valueOf(1), shard(shards.shardOf(id))
+				.queryForObject("select count(*) from lists where id = ?", Long.class, id));
+	}
+
+	@Test
+	public void newListCannotTakeOverEntriesTest() throws Exception {
+		long victim = createList("victim");
+		long entryId = objectMapper.readTree(mvc.perform(get("/api/" + victim))
+				.andReturn().getResponse().getContentAsString()).get(0).get("id").asLong();
+
+		String response = mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"attacker\", \"entries\": [{\"id\": " + entryId
+						+ ", \"description\": \"mine\"}]}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+
+		assertTrue(objectMapper.readTree(response).get("entries").get(0).get("id").asLong() != entryId);
+		mvc.perform(get("/api/" + victim + "/entries/" + entryId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.description", is("victim entry")));
+	}
+
+	@Test
+	public void getListsGathersAllShardsTest() throws Exception {
+		List<Long> ids = createLists(10);
+
+		String response = mvc.perform(get("/api"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(10)))
+			.andReturn().getResponse().getContentAsString();
+
+		List<Long> returned = new ArrayList<>();
+		for (JsonNode list : objectMapper.readTree(response)) {
+			returned.add(list.get("id").asLong());
+			assertEquals(1, list.get("entries").size());
+		}
+		assertEquals(ids, returned);
+	}
+
+	@Test
+	public void summaryPagesSpanShardsTest() throws Exception {
+		List<Long> ids = createLists(11);
+
+		List<Long> paged = new ArrayList<>();
+		long after = 0;
+		JsonNode page;
+		do {
+			page = objectMapper.readTree(mvc.perform(get("/api?limit=4&after=" + after))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+			for (JsonNode summary : page) {
+				paged.add(summary.get("id").asLong());
+				assertEquals(1, summary.get("entryCount").asInt());
+				after = summary.get("id").asLong();
+			}
+		} while (page.size() == 4);
+
+		assertEquals(ids, paged);
+	}
+
+	@Test
+	public void entryOperationsAreRoutedTest() throws Exception {
+		createLists(3);
+		long listId = createList("routed");
+
+		String created = mvc.perform(post("/api/" + listId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"second\"}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		long entryId = objectMapper.readTree(created).get("id").asLong();
+		mvc.perform(post("/api/" + listId + "/entries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"description\": \"third\"}, {}]"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.created", is(1)));
+
+		String etag = mvc.perform(get("/api/" + listId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(3)))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+		mvc.perform(get("/api/" + listId + "/entries/" + entryId))
+			.andExpect(jsonPath("$.description", is("second")));
+
+		mvc.perform(delete("/api/" + entryId + "/" + listId))
+			.andExpect(status().isOk());
+		mvc.perform(get("/api/" + listId + "/entries"))
+			.andExpect(jsonPath("$", hasSize(2)));
+		mvc.perform(delete("/api/" + listId))
+			.andExpect(status().isOk());
+		mvc.perform(get("/api/" + listId))
+			.andExpect(status().isNotFound());
+		mvc.perform(get("/api"))
+			.andExpect(jsonPath("$", hasSize(3)));
+	}
+
+	@Test
+	public void namesAreUniqueAcrossShardsTest() throws Exception {
+		// every list of a name goes to the shard of the name, where the unique constraint catches it
+		long id = createList("taken");
+		assertEquals(shards.shardOfName("taken"), shards.shardOf(id));
+		for (int i = 0; i < 8; i++) {
+			mvc.perform(post("/api")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"name\": \"taken\"}"))
+				.andExpect(status().isBadRequest());
+		}
+		mvc.perform(get("/api"))
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void concurrentCreatesOfOneNameTest() throws Exception {
+		int creators = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(creators);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Integer>> statuses = new ArrayList<>();
+			for (int i = 0; i < creators; i++) {
+				statuses.add(executor.submit(() -> {
+					start.await();
+					return mvc.perform(post("/api")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"name\": \"contended\"}"))
+						.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			int created = 0;
+			for (Future<Integer> status : statuses) {
+				created += status.get() == HttpStatus.CREATED.value() ? 1 : 0;
+			}
+			assertEquals(1, created);
+		} finally {
+			executor.shutdown();
+		}
+		mvc.perform(get("/api"))
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void deleteEntryOfListOnAnotherShardTest() throws Exception {
+		List<Long> ids = createLists(8);
+		long owner = ids.get(0);
+		long other = ids.stream().filter(id -> shards.shardOf(id) != shards.shardOf(owner)).findFirst().get();
+		long entryId = objectMapper.readTree(mvc.perform(get("/api/" + owner))
+				.andReturn().getResponse().getContentAsString()).get(0).get("id").asLong();
+
+		mvc.perform(delete("/api/" + entryId + "/" + other))
+			.andExpect(status().isBadRequest());
+		mvc.perform(delete("/api/1/" + other))
+			.andExpect(status().isNotFound());
+		mvc.perform(get("/api/" + owner))
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void snapshotRestoresEveryShardTest() throws Exception {
+		List<Long> ids = createLists(8);
+		Path path = Files.createTempDirectory("snapshot").resolve("todolist.snapshot");
+		snapshotService.export(path);
+		tearDown();
+
+		assertEquals(8, snapshotService.restore(path));
+
+		for (Long id : ids) {
+			mvc.perform(get("/api/" + id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(1)));
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.todolist.shard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ShardsTest {
+
+	private final Shards shards = new Shards(4, 4);
+
+	@After
+	public void tearDown() {
+		shards.destroy();
+	}
+
+	@Test
+	public void listsAreSpreadOverAllShardsTest() {
+		int[] lists = new int[4];
+		// consecutive ids, like the time-ordered ids of one node
+		for (long id = 1000; id < 5000; id++) {
+			lists[shards.shardOf(id)]++;
+		}
+		for (int count : lists) {
+			assertTrue(count > 800);
+		}
+	}
+
+	@Test
+	public void singleShardTest() {
+		Shards single = Shards.single();
+
+		assertEquals(1, single.count());
+		assertEquals(0, single.shardOf(Long.MAX_VALUE));
+		assertEquals(Arrays.asList("only"), single.gather(() -> "only"));
+		single.select(null);
+		assertNull(Shards.selected());
+	}
+
+	@Test
+	public void callRestoresSelectedShardTest() {
+		long listId = 42;
+		int shard = shards.shardOf(listId);
+
+		int inner = shards.callOn((shard + 1) % 4, () -> {
+			shards.callFor(listId, () -> {
+				assertTrue(shards.owns(listId));
+				return null;
+			});
+			assertFalse(shards.owns(listId));
+			return Shards.selected();
+		});
+
+		assertEquals((shard + 1) % 4, inner);
+		assertNull(Shards.selected());
+	}
+
+	@Test
+	public void forEachVisitsShardsInOrderTest() {
+		StringBuilder visited = new StringBuilder();
+
+		shards.forEach(() -> visited.append(Shards.selected()));
+
+		assertEquals("0123", visited.toString());
+		assertNull(Shards.selected());
+	}
+
+	@Test
+	public void gatherQueriesShardsInParallelTest() {
+		CountDownLatch running = new CountDownLatch(4);
+
+		List<Integer> results = shards.gather(() -> {
+			running.countDown();
+			try {
+				// only returns if all shards are queried at the same time
+				assertTrue(running.await(5, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return Shards.selected();
+		});
+
+		assertEquals(Arrays.asList(0, 1, 2, 3), results);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void gatherRethrowsFailureTest() {
+		shards.gather(() -> {
+			if (Shards.selected() == 2) {
+				throw new UnsupportedOperationException();
+			}
+			return null;
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noShardsTest() {
+		new Shards(0, 1);
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.todolist.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "todolist.snapshot.path=build/snapshot-test/todolist.snapshot",
+		"todolist.snapshot.export-on-shutdown=false", "todolist.snapshot.batch-size=7" })
+@ActiveProfiles("test")
+public class SnapshotServiceTest {
+	@Autowired
+	private SnapshotService snapshotService;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	private Path path;
+
+	@Before
+	public void setUp() throws Exception {
+		path = Files.createTempDirectory("snapshot").resolve("todolist.snapshot");
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private ToDoList saveList(String name, int entries) {
+		ToDoList list = new ToDoList();
+		list.setName(name);
+		for (int i = 0; i < entries; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription(name + " entry " + i);
+			entry.setList(list);
+			list.addEntry(entry);
+		}
+		return listRepository.save(list);
+	}
+
+	@Test
+	public void exportAndRestoreTest() {
+		ToDoList first = new ToDoList();
+		first.setName("first");
+		first.setVersion(1);
+		first = listRepository.save(first);
+		saveList("second", 3);
+		saveList("empty", 0);
+		for (int i = 0; i < 20; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription("first entry " + i);
+			entry.setList(first);
+			entryRepository.save(entry);
+		}
+
+		snapshotService.export(path);
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+
+		assertEquals(3, snapshotService.restore(path));
+		assertEquals(3, listRepository.count());
+		assertEquals(23, entryRepository.count());
+		assertEquals(Long.valueOf(1), listRepository.findVersionById(first.getId()));
+		Collection<ToDoEntry> entries = entryRepository.findAllByListId(first.getId());
+		assertEquals(20, entries.size());
+		assertTrue(entries.iterator().next().getDescription().startsWith("first entry "));
+
+		// ids handed out after the restore must not collide with restored ones
+		ToDoList added = saveList("added", 60);
+		assertEquals(4, listRepository.count());
+		assertEquals(83, entryRepository.count());
+		assertTrue(added.getId() > first.getId());
+	}
+
+	@Test
+	public void notRestoredIntoNonEmptyDatabaseTest() {
+		saveList("first", 2);
+		snapshotService.export(path);
+
+		assertEquals(0, snapshotService.restore(path));
+		assertEquals(1, listRepository.count());
+	}
+}
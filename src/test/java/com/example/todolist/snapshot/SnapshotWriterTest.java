@@ -0,0 +1,92 @@
+package com.example.todolist.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotWriterTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path write(boolean compress, int entries) throws IOException {
+		Path path = folder.getRoot().toPath().resolve(compress ? "compressed" : "plain");
+		try (SnapshotWriter writer = new SnapshotWriter(path, compress)) {
+			writer.writeList(1, 3, "first");
+			writer.writeList(2, 0, "zweite Liste ü");
+			for (int i = 0; i < entries; i++) {
+				writer.writeEntry(100 + i, 1 + i % 2, i == 0 ? null : "entry " + i);
+			}
+		}
+		return path;
+	}
+
+	private List<String> read(Path path) throws IOException {
+		List<String> records = new ArrayList<>();
+		try (SnapshotReader reader = new SnapshotReader(path)) {
+			reader.read(new SnapshotReader.Visitor() {
+				@Override
+				public void list(long id, long version, String name) {
+					records.add("list " + id + " " + version + " " + name);
+				}
+
+				@Override
+				public void entry(long id, long listId, String description) {
+					records.add("entry " + id + " " + listId + " " + description);
+				}
+			});
+		}
+		return records;
+	}
+
+	@Test
+	public void roundTripTest() throws IOException {
+		for (boolean compress : new boolean[] { false, true }) {
+			List<String> records = read(write(compress, 50000));
+
+			assertEquals(50002, records.size());
+			assertEquals("list 1 3 first", records.get(0));
+			assertEquals("list 2 0 zweite Liste ü", records.get(1));
+			assertEquals("entry 100 1 null", records.get(2));
+			assertEquals("entry 50099 2 entry 49999", records.get(50001));
+		}
+	}
+
+	@Test
+	public void compressionTest() throws IOException {
+		assertTrue(Files.size(write(true, 10000)) * 3 < Files.size(write(false, 10000)));
+	}
+
+	@Test
+	public void truncatedTest() throws IOException {
+		Path path = write(false, 100);
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.setLength(file.length() - 10);
+		}
+
+		try {
+			read(path);
+			fail("Truncated snapshot was read");
+		} catch (IOException e) {
+			assertEquals("Snapshot is truncated", e.getMessage());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void notASnapshotTest() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, "{\"lists\": []}".getBytes());
+		assertNull(read(path));
+	}
+}
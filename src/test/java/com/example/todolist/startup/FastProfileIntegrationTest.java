@@ -0,0 +1,81 @@
+package com.example.todolist.startup;
+
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "fast" })
+public class FastProfileIntegrationTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	@Test
+	public void fastStartConfigTest() {
+		assertTrue(context.getBeanFactory().getBeanDefinition("toDoListApiController").isLazyInit());
+		assertNotNull(context.getBean("&entityManagerFactory", AbstractEntityManagerFactoryBean.class)
+				.getBootstrapExecutor());
+	}
+
+	@Test
+	public void listLifecycleTest() throws Exception {
+		mvc.perform(post("/api")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\": \"fast list\", \"entries\": [{\"description\": \"fast entry\"}]}"))
+			.andExpect(status().isCreated());
+
+		mvc.perform(get("/api/search?q=fast"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$", hasSize(1)));
+		mvc.perform(get("/api/lists/suggest?prefix=fast"))
+			.andExpect(jsonPath("$", hasSize(1)));
+	}
+
+	@Test
+	public void startupPhasesArePublishedTest() {
+		assertNotNull(meterRegistry.find("todolist.startup.duration").tags("phase", "beans").gauge());
+		assertNotNull(meterRegistry.find("todolist.startup.duration").tags("phase", "total").gauge());
+	}
+}
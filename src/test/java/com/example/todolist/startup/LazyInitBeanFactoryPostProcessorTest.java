@@ -0,0 +1,46 @@
+package com.example.todolist.startup;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+public class LazyInitBeanFactoryPostProcessorTest {
+
+	static class Plain {
+	}
+
+	static class Initializing implements SmartInitializingSingleton {
+		@Override
+		public void afterSingletonsInstantiated() {
+		}
+	}
+
+	@Test
+	public void postProcessBeanFactoryTest() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("plain", new RootBeanDefinition(Plain.class));
+		beanFactory.registerBeanDefinition("initializing", new RootBeanDefinition(Initializing.class));
+		RootBeanDefinition infrastructure = new RootBeanDefinition(Plain.class);
+		infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+		beanFactory.registerBeanDefinition("infrastructure", infrastructure);
+		RootBeanDefinition prototype = new RootBeanDefinition(Plain.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototype", prototype);
+
+		new LazyInitBeanFactoryPostProcessor().postProcessBeanFactory(beanFactory);
+
+		assertTrue(beanFactory.getBeanDefinition("plain").isLazyInit());
+		assertFalse(beanFactory.getBeanDefinition("initializing").isLazyInit());
+		assertFalse(beanFactory.getBeanDefinition("infrastructure").isLazyInit());
+		assertFalse(beanFactory.getBeanDefinition("prototype").isLazyInit());
+
+		beanFactory.preInstantiateSingletons();
+		assertFalse(beanFactory.containsSingleton("plain"));
+		assertTrue(beanFactory.containsSingleton("initializing"));
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.todolist.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongObjectHashMapTest {
+
+	@Test
+	public void putGetRemoveTest() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+		assertNull(map.put(1, "one"));
+		assertNull(map.put(0, "zero"));
+		assertNull(map.put(-5, "minus five"));
+		assertEquals("one", map.put(1, "uno"));
+
+		assertEquals(3, map.size());
+		assertEquals("uno", map.get(1));
+		assertEquals("zero", map.get(0));
+		assertTrue(map.containsKey(-5));
+		assertFalse(map.containsKey(2));
+
+		assertEquals("zero", map.remove(0));
+		assertNull(map.remove(0));
+		assertEquals(2, map.size());
+		assertNull(map.get(0));
+	}
+
+	@Test
+	public void keysAndForEachTest() {
+		LongObjectHashMap<Long> map = new LongObjectHashMap<>(2);
+		for (long key = 1; key <= 100; key++) {
+			map.put(key, key * 10);
+		}
+
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals(100, keys.length);
+		assertEquals(1, keys[0]);
+		assertEquals(100, keys[99]);
+
+		long[] sum = new long[1];
+		map.forEach((key, value) -> {
+			assertEquals(key * 10, value.longValue());
+			sum[0] += value;
+		});
+		assertEquals(50500, sum[0]);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertArrayEquals(new long[0], map.keys());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullValueTest() {
+		new LongObjectHashMap<String>().put(1, null);
+	}
+
+	/**
+	 * Removals shift colliding keys back, none of them may get lost on the way
+	 */
+	@Test
+	public void randomOperationsTest() {
+		LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200000; i++) {
+			long key = random.nextInt(2000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				long value = random.nextLong();
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (long key = 0; key < 2000; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.example.todolist.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConditionalGetInterceptorTest {
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long listId;
+
+	@Before
+	public void setUp() {
+		ToDoList list = new ToDoList();
+		list.setName("etag list");
+		listId = listRepository.save(list).getId();
+	}
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private String etag(String url) throws Exception {
+		return mvc.perform(get(url))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	public void weakETagsTest() throws Exception {
+		String etag = etag("/api/" + listId);
+		assertTrue(etag.startsWith("W/\""));
+		assertTrue(etag("/api").startsWith("W/\""));
+
+		// the gzip body of the same version matches as well
+		mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, etag)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(status().isNotModified());
+		mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void listEntriesNotModifiedTest() throws Exception {
+		String etag = etag("/api/" + listId);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().string(""));
+
+		// the version is cached since the first read
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	public void repeatedReadsStayOffTheDatabaseTest() throws Exception {
+		etag("/api/" + listId);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		etag("/api/" + listId);
+		etag("/api/" + listId + "/entries");
+
+		// entries and version are cached, only the summaries are queried
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	public void listEntriesModifiedTest() throws Exception {
+		String etag = etag("/api/" + listId);
+
+		mvc.perform(post("/api/" + listId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"description\": \"new entry\"}"))
+			.andExpect(status().isCreated());
+
+		String changed = mvc.perform(get("/api/" + listId).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+	}
+
+	@Test
+	public void listEntriesNotFoundTest() throws Exception {
+		mvc.perform(get("/api/" + (listId + 1000)).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void listsNotModifiedTest() throws Exception {
+		String etag = etag("/api");
+
+		mvc.perform(get("/api").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	public void listsModifiedTest() throws Exception {
+		String etag = etag("/api");
+
+		mvc.perform(delete("/api/" + listId)).andExpect(status().isOk());
+
+		mvc.perform(get("/api").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk());
+		assertNotEquals(etag, etag("/api"));
+	}
+}
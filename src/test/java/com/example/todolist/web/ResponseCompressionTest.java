@@ -0,0 +1,91 @@
+package com.example.todolist.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.StreamUtils;
+
+import com.example.todolist.model.ToDoEntry;
+import com.example.todolist.model.ToDoList;
+import com.example.todolist.repository.EntryRepository;
+import com.example.todolist.repository.ListRepository;
+
+/**
+ * Compression is done by the servlet container, so this runs against a real server
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ResponseCompressionTest {
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private ListRepository listRepository;
+
+	@Autowired
+	private EntryRepository entryRepository;
+
+	@After
+	public void tearDown() {
+		entryRepository.deleteAllInBatch();
+		listRepository.deleteAllInBatch();
+	}
+
+	private ResponseEntity<byte[]> get(String url) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+	}
+
+	private Long createList(String name, int entries) {
+		ToDoList list = new ToDoList();
+		list.setName(name);
+		for (int i = 0; i < entries; i++) {
+			ToDoEntry entry = new ToDoEntry();
+			entry.setDescription("compressible entry number " + i);
+			entry.setList(list);
+			list.addEntry(entry);
+		}
+		return listRepository.save(list).getId();
+	}
+
+	@Test
+	public void largeResponseIsCompressedTest() throws Exception {
+		Long listId = createList("large", 200);
+
+		ResponseEntity<byte[]> response = get("/api/" + listId);
+
+		assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		byte[] json = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getBody())));
+		assertTrue(response.getBody().length * 4 < json.length);
+		assertTrue(new String(json, "UTF-8").contains("compressible entry number 199"));
+	}
+
+	@Test
+	public void smallResponseIsNotCompressedTest() {
+		Long listId = createList("small", 1);
+
+		ResponseEntity<byte[]> response = get("/api/" + listId);
+
+		assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertTrue(new String(response.getBody()).contains("compressible entry number 0"));
+	}
+}
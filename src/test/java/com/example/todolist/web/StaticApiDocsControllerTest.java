@@ -0,0 +1,39 @@
+package com.example.todolist.web;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.todolist.exceptions.NotFoundException;
+
+public class StaticApiDocsControllerTest {
+
+	private final StaticApiDocsController controller = new StaticApiDocsController();
+
+	@Test
+	public void getApiDocsTest() throws Exception {
+		byte[] spec = "{\"swagger\":\"2.0\"}".getBytes(StandardCharsets.UTF_8);
+		ReflectionTestUtils.setField(controller, "location", new ByteArrayResource(spec));
+
+		assertArrayEquals(spec, controller.getApiDocs());
+		assertArrayEquals(spec, controller.getApiDocs());
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void getApiDocsNotGeneratedTest() throws Exception {
+		ReflectionTestUtils.setField(controller, "location", new ClassPathResource("missing-api-docs.json"));
+
+		controller.getApiDocs();
+	}
+
+	@Test
+	public void getSwaggerResourcesTest() {
+		assertEquals(StaticApiDocsController.API_DOCS_PATH, controller.getSwaggerResources().get(0).get("location"));
+	}
+}